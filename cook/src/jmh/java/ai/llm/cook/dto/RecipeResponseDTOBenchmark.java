@@ -0,0 +1,84 @@
+package ai.llm.cook.dto;
+
+import ai.llm.cook.model.Ingredient;
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO mapping and the JSON serialization of a chat answer with its suggested recipes
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeResponseDTOBenchmark {
+
+    private Recipe recipe;
+    private ChatResponseDTO chatResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setFullName("Ada Cook");
+
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            ingredients.add(Ingredient.builder().id((long) i).name("ingredient " + i).quantity(String.valueOf(i * 50)).unit("g").build());
+        }
+
+        recipe = Recipe.builder()
+                .id(42L)
+                .title("Rustic Tomato and Basil Skillet")
+                .description("A quick one-pan dinner with bright tomatoes, fresh basil and a garlicky olive oil base.")
+                .instructions("1. Brown the chicken.\n2. Add tomatoes and garlic.\n3. Simmer for 20 minutes.\n4. Finish with basil.")
+                .preparationTime(10)
+                .cookingTime(25)
+                .servings(4)
+                .user(user)
+                .ingredients(ingredients)
+                .createdAt(LocalDateTime.of(2025, 1, 15, 18, 30))
+                .updatedAt(LocalDateTime.of(2025, 1, 16, 9, 0))
+                .build();
+
+        List<RecipeResponseDTO> suggestions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            suggestions.add(RecipeResponseDTO.fromEntity(recipe));
+        }
+        chatResponse = new ChatResponseDTO(
+                "Here is a quick weeknight idea: brown the chicken, add tomatoes and garlic, simmer and finish with basil. ".repeat(8),
+                suggestions, true, null);
+
+        // Same modules Spring Boot registers on its own ObjectMapper for these types
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    @Benchmark
+    public RecipeResponseDTO fromEntity() {
+        return RecipeResponseDTO.fromEntity(recipe);
+    }
+
+    @Benchmark
+    public byte[] serializeChatResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(chatResponse);
+    }
+}
@@ -0,0 +1,114 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.embedding.EmbeddingClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Top-10 queries against the HNSW graph and, for scale, against a brute-force scan of the same vectors.
+// Embeddings of real recipes cluster by cuisine and dish type, so the vectors are drawn around a few
+// hundred centroids rather than uniformly. Recall@10 against the exact answer is printed during setup.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HnswIndexBenchmark {
+
+    private static final int DIMENSIONS = 256;
+    private static final int CLUSTERS = 500;
+    private static final int K = 10;
+    // Spread within a cluster relative to the distance between clusters
+    private static final float SPREAD = 1.0f;
+
+    @Param({"100000"})
+    private int recipeCount;
+
+    private HnswIndex index;
+    private float[][] vectors;
+    private float[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        float[][] centroids = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centroids[c] = gaussian(random, null, 1);
+        }
+
+        long start = System.currentTimeMillis();
+        index = new HnswIndex(DIMENSIONS, 16, 100, 64);
+        vectors = new float[recipeCount][];
+        for (int id = 0; id < recipeCount; id++) {
+            vectors[id] = gaussian(random, centroids[random.nextInt(CLUSTERS)], SPREAD);
+            index.add(id, vectors[id]);
+        }
+        long buildMillis = System.currentTimeMillis() - start;
+
+        // Queries come from the same distribution as the recipes but are not in the index
+        queries = new float[256][];
+        for (int q = 0; q < queries.length; q++) {
+            queries[q] = gaussian(random, centroids[random.nextInt(CLUSTERS)], SPREAD);
+        }
+
+        double recall = 0;
+        for (float[] query : queries) {
+            Set<Long> exact = new HashSet<>(bruteForce(query));
+            recall += index.search(query, K).stream().filter(exact::contains).count() / (double) K;
+        }
+        System.out.printf("%nBuilt %d vectors in %d ms, recall@%d = %.3f%n", recipeCount, buildMillis, K, recall / queries.length);
+    }
+
+    @Benchmark
+    public Object hnswSearch() {
+        return index.search(queries[next++ & 255], K);
+    }
+
+    @Benchmark
+    public Object bruteForceSearch() {
+        return bruteForce(queries[next++ & 255]);
+    }
+
+    private List<Long> bruteForce(float[] query) {
+        // Farthest of the current top k at the head
+        PriorityQueue<long[]> top = new PriorityQueue<>(K + 1, (left, right) -> Float.compare(Float.intBitsToFloat((int) right[1]), Float.intBitsToFloat((int) left[1])));
+        for (int id = 0; id < vectors.length; id++) {
+            float distance = HnswIndex.distance(query, vectors[id]);
+            if (top.size() < K || distance < Float.intBitsToFloat((int) top.peek()[1])) {
+                top.offer(new long[]{id, Float.floatToIntBits(distance)});
+                if (top.size() > K) {
+                    top.poll();
+                }
+            }
+        }
+        return top.stream().map(entry -> entry[0]).toList();
+    }
+
+    private static float[] gaussian(SplittableRandom random, float[] center, float scale) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            // Box-Muller
+            double noise = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+            vector[i] = (center != null ? center[i] : 0) + (float) (noise * scale / Math.sqrt(DIMENSIONS));
+        }
+        return EmbeddingClient.normalize(vector);
+    }
+}
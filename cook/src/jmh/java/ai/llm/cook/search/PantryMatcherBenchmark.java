@@ -0,0 +1,89 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeRequestDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Pantry queries over a catalogue shaped like real ones: ingredient popularity is Zipf-like, so a few
+// staples (onion, garlic, oil) appear in a large share of recipes and most ingredients in very few
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PantryMatcherBenchmark {
+
+    private static final int INGREDIENT_COUNT = 5_000;
+    private static final int INGREDIENTS_PER_RECIPE = 10;
+
+    @Param({"100000", "1000000"})
+    private int recipeCount;
+
+    private PantryMatcher pantryMatcher;
+    private List<List<String>> pantries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        pantryMatcher = new PantryMatcher(List.of("salt", "pepper", "water"));
+        for (long id = 1; id <= recipeCount; id++) {
+            List<RecipeRequestDTO.IngredientDTO> ingredients = new ArrayList<>(INGREDIENTS_PER_RECIPE);
+            for (int i = 0; i < INGREDIENTS_PER_RECIPE; i++) {
+                ingredients.add(RecipeRequestDTO.IngredientDTO.builder().name(ingredientName(zipf(random))).build());
+            }
+            RecipeResponseDTO recipe = new RecipeResponseDTO();
+            recipe.setId(id);
+            recipe.setIngredients(ingredients);
+            pantryMatcher.index(recipe);
+        }
+        pantryMatcher.markReady();
+
+        // Typical pantries hold a dozen common items and a couple of rarer ones
+        pantries = new ArrayList<>();
+        for (int p = 0; p < 64; p++) {
+            List<String> pantry = new ArrayList<>();
+            for (int i = 0; i < 14; i++) {
+                pantry.add(ingredientName(zipf(random)));
+            }
+            pantries.add(pantry);
+        }
+    }
+
+    @Benchmark
+    public Object matchUpToTwoMissing() {
+        return pantryMatcher.match(pantries.get(next++ & 63), 2, 20);
+    }
+
+    @Benchmark
+    public Object matchFullyCoverable() {
+        return pantryMatcher.match(pantries.get(next++ & 63), 0, 20);
+    }
+
+    private static String ingredientName(int rank) {
+        return "ingredient" + rank;
+    }
+
+    // Inverse-CDF sampling of a Zipf(s = 1) distribution over the ingredient ranks
+    private static int zipf(SplittableRandom random) {
+        double harmonic = Math.log(INGREDIENT_COUNT) + 0.5772;
+        return (int) Math.min(INGREDIENT_COUNT - 1, Math.exp(random.nextDouble() * harmonic - 0.5772));
+    }
+}
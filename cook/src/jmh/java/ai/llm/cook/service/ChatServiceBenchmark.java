@@ -0,0 +1,82 @@
+package ai.llm.cook.service;
+
+import ai.llm.cook.utils.RecipeCompletions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Prompt building, keyword extraction and completion parsing; none of these touch the service's collaborators
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatServiceBenchmark {
+
+    private ChatService chatService;
+    private Map<String, Object> context;
+    private List<String> ingredients;
+    private List<String> restrictions;
+    private String query;
+    private String completion;
+
+    @Setup
+    public void setUp() {
+        chatService = new ChatService(null, null, null, null);
+        // Normally injected from chat.prompt.*
+        setField(chatService, "maxQueryTokens", 400);
+        setField(chatService, "maxListTokens", 150);
+
+        ingredients = List.of("basil", "chicken thighs", "garlic", "olive oil", "parmesan", "spaghetti", "tomatoes");
+        restrictions = List.of("low sodium", "no nuts");
+        query = "how can you make a quick weeknight pasta with chicken and fresh tomatoes for the family";
+
+        context = new HashMap<>();
+        context.put("query", query);
+        context.put("dietaryRestrictions", restrictions);
+        context.put("availableIngredients", ingredients);
+
+        completion = RecipeCompletions.ofSize(2048);
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @Benchmark
+    public String preparePrompt() {
+        return chatService.preparePrompt(context);
+    }
+
+    @Benchmark
+    public String prepareRecipeGenerationPrompt() {
+        return chatService.prepareRecipeGenerationPrompt(ingredients, restrictions);
+    }
+
+    @Benchmark
+    public String[] extractKeywords() {
+        return chatService.extractKeywords(query);
+    }
+
+    @Benchmark
+    public Object parseRecipeFromLLMResponse() {
+        return chatService.parseRecipeFromLLMResponse(completion);
+    }
+}
@@ -0,0 +1,95 @@
+package ai.llm.cook.utils;
+
+import ai.llm.cook.config.OpenAIConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Request bodies are serialized the way they go on the wire; responses mimic OpenAI's chat completion payload
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LLMHelperBenchmark {
+
+    private LLMHelper llmHelper;
+    private String prompt;
+    private String textResponse;
+    private String structuredContent;
+
+    @Setup
+    public void setUp() {
+        OpenAIConfig openAIConfig = new OpenAIConfig() {
+            @Override
+            public String getOpenaiModel() {
+                return "gpt-4o-mini";
+            }
+
+            @Override
+            public String getOpenaiApiKey() {
+                return "benchmark";
+            }
+        };
+        llmHelper = new LLMHelper(null, null, openAIConfig, null, null, null, null, new LLMMetrics(new SimpleMeterRegistry()), null);
+
+        prompt = "You are Cook.ai, a helpful cooking assistant. User query: what can I make with chicken, "
+                + "tomatoes and basil tonight?\n\nAvailable ingredients: basil, chicken thighs, garlic, tomatoes\n\n"
+                + "Provide a helpful, friendly response about cooking, recipes, or food-related questions.";
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("id", "chatcmpl-benchmark")
+                .put("object", "chat.completion")
+                .put("model", "gpt-4o-mini");
+        ObjectNode choice = response.putArray("choices").addObject()
+                .put("index", 0)
+                .put("finish_reason", "stop");
+        choice.putObject("message")
+                .put("role", "assistant")
+                .put("content", RecipeCompletions.ofSize(2048));
+        response.putObject("usage")
+                .put("prompt_tokens", 120)
+                .put("completion_tokens", 520)
+                .put("total_tokens", 640);
+        textResponse = response.toString();
+
+        structuredContent = "{\"title\":\"Rustic Tomato and Basil Skillet\",\"description\":\"A quick one-pan dinner\","
+                + "\"ingredients\":[\"200 g chicken thighs\",\"3 tomatoes\",\"1 bunch basil\",\"2 cloves garlic\"],"
+                + "\"instructions\":[\"Brown the chicken\",\"Add tomatoes and garlic\",\"Finish with basil\"],"
+                + "\"cookingTime\":35,\"difficulty\":\"Medium\",\"cuisine\":\"Italian\"}";
+    }
+
+    @Benchmark
+    public String buildChatRequestBody() {
+        return llmHelper.createChatRequest(prompt, false).toString();
+    }
+
+    @Benchmark
+    public String buildStructuredRequestBody() {
+        return llmHelper.createStructuredRequest(prompt).toString();
+    }
+
+    @Benchmark
+    public String extractContent() {
+        return llmHelper.extractContent(textResponse);
+    }
+
+    @Benchmark
+    public Object parseStructuredContent() {
+        return llmHelper.parseStructuredContent(structuredContent);
+    }
+}
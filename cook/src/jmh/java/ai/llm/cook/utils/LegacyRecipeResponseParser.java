@@ -0,0 +1,112 @@
+package ai.llm.cook.utils;
+
+import ai.llm.cook.dto.RecipeRequestDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The split-per-marker parser that RecipeResponseParser replaced, kept verbatim as the benchmark baseline
+final class LegacyRecipeResponseParser {
+
+    private LegacyRecipeResponseParser() {
+    }
+
+    static RecipeResponseDTO parse(String llmResponse) {
+        RecipeResponseDTO recipe = new RecipeResponseDTO();
+
+        // Parse the structured response from LLM
+        // This is a simplified implementation
+        // In a real app, use regex or a more robust parsing approach
+
+        // Extract title
+        if (llmResponse.contains("TITLE:")) {
+            String[] parts = llmResponse.split("TITLE:");
+            if (parts.length > 1) {
+                String titlePart = parts[1].split("\n")[0].trim();
+                recipe.setTitle(titlePart);
+            }
+        }
+
+        // Extract description
+        if (llmResponse.contains("DESCRIPTION:")) {
+            String[] parts = llmResponse.split("DESCRIPTION:");
+            if (parts.length > 1) {
+                String[] lines = parts[1].split("INGREDIENTS:");
+                if (lines.length > 0) {
+                    recipe.setDescription(lines[0].trim());
+                }
+            }
+        }
+
+        // Extract ingredients as a list
+        if (llmResponse.contains("INGREDIENTS:")) {
+            String[] parts = llmResponse.split("INGREDIENTS:");
+            if (parts.length > 1) {
+                String[] ingredientSection = parts[1].split("INSTRUCTIONS:");
+                if (ingredientSection.length > 0) {
+                    String[] ingredientLines = ingredientSection[0].trim().split("\n");
+                    List<RecipeRequestDTO.IngredientDTO> ingredientsList = new ArrayList<>();
+                    for (String line : ingredientLines) {
+                        if (!line.trim().isEmpty()) {
+                            ingredientsList.add(RecipeRequestDTO.IngredientDTO.builder().description(line.trim()).build());
+                        }
+                    }
+                    recipe.setIngredients(ingredientsList);
+                }
+            }
+        }
+
+        // Extract instructions as a list
+        if (llmResponse.contains("INSTRUCTIONS:")) {
+            String[] parts = llmResponse.split("INSTRUCTIONS:");
+            if (parts.length > 1) {
+                String[] instructionSection = parts[1].split("COOKING_TIME:");
+                if (instructionSection.length > 0) {
+                    String[] instructionLines = instructionSection[0].trim().split("\n");
+                    List<String> instructionsList = new ArrayList<>();
+                    for (String line : instructionLines) {
+                        if (!line.trim().isEmpty()) {
+                            instructionsList.add(line.trim());
+                        }
+                    }
+                    recipe.setInstructions(instructionsList.toString());
+                }
+            }
+        }
+
+        // Extract cooking time
+        if (llmResponse.contains("COOKING_TIME:")) {
+            String[] parts = llmResponse.split("COOKING_TIME:");
+            if (parts.length > 1) {
+                String timePart = parts[1].split("\n")[0].trim();
+                try {
+                    int cookingTime = Integer.parseInt(timePart.replaceAll("\\D+", ""));
+                    recipe.setCookingTime(cookingTime);
+                } catch (NumberFormatException e) {
+                    recipe.setCookingTime(0);
+                }
+            }
+        }
+
+        // Extract difficulty
+        if (llmResponse.contains("DIFFICULTY:")) {
+            String[] parts = llmResponse.split("DIFFICULTY:");
+            if (parts.length > 1) {
+                String difficultyPart = parts[1].split("\n")[0].trim();
+                recipe.setExtra("DifficultyPart : "+difficultyPart);
+            }
+        }
+
+        // Extract cuisine type
+        if (llmResponse.contains("CUISINE:")) {
+            String[] parts = llmResponse.split("CUISINE:");
+            if (parts.length > 1) {
+                String cuisinePart = parts[1].split("\n")[0].trim();
+                recipe.setExtra("CUISINE : "+cuisinePart);
+            }
+        }
+
+        return recipe;
+    }
+}
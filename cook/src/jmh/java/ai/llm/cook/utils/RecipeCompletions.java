@@ -0,0 +1,37 @@
+package ai.llm.cook.utils;
+
+// Synthetic completions in the layout the recipe generation prompt asks for, padded to a target size
+// with more ingredient and instruction lines, the way longer real completions grow
+public final class RecipeCompletions {
+
+    private RecipeCompletions() {
+    }
+
+    public static String ofSize(int targetBytes) {
+        StringBuilder ingredients = new StringBuilder();
+        StringBuilder instructions = new StringBuilder();
+        StringBuilder text = new StringBuilder(targetBytes + 256);
+
+        for (int step = 1; ; step++) {
+            ingredients.append("- ").append(step * 50).append(" g ingredient number ").append(step)
+                    .append(", finely chopped\n");
+            instructions.append(step).append(". Add ingredient number ").append(step)
+                    .append(" to the pan and stir over medium heat for ").append(step % 7 + 1)
+                    .append(" minutes until fragrant.\n");
+
+            text.setLength(0);
+            text.append("Here is a recipe made with what you have on hand.\n\n")
+                    .append("TITLE: Rustic Tomato and Basil Skillet\n")
+                    .append("DESCRIPTION: A quick one-pan dinner with bright tomatoes, fresh basil and a\n")
+                    .append("garlicky olive oil base that comes together on a weeknight.\n\n")
+                    .append("INGREDIENTS:\n").append(ingredients).append('\n')
+                    .append("INSTRUCTIONS:\n").append(instructions).append('\n')
+                    .append("COOKING_TIME: 35 minutes\n")
+                    .append("DIFFICULTY: Medium\n")
+                    .append("CUISINE: Italian\n");
+            if (text.length() >= targetBytes) {
+                return text.toString();
+            }
+        }
+    }
+}
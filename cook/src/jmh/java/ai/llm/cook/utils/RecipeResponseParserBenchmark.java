@@ -0,0 +1,45 @@
+package ai.llm.cook.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Split-per-marker parser against the single-pass scanner on typical recipe completion sizes
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeResponseParserBenchmark {
+
+    @Param({"1024", "2048", "4096"})
+    private int completionBytes;
+
+    private String completion;
+
+    @Setup
+    public void setUp() {
+        completion = RecipeCompletions.ofSize(completionBytes);
+    }
+
+    @Benchmark
+    public Object legacySplitParser() {
+        return LegacyRecipeResponseParser.parse(completion);
+    }
+
+    @Benchmark
+    public Object singlePassParser() {
+        return RecipeResponseParser.parse(completion);
+    }
+}
@@ -0,0 +1,17 @@
+package ai.llm.cook.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class AsyncConfig {
+
+    // Chat work is dominated by waiting on OpenAI and the database, so every task gets its own virtual thread
+    @Bean(name = "chatExecutor", destroyMethod = "shutdown")
+    public ExecutorService chatExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
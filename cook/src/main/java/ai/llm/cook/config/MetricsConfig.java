@@ -0,0 +1,90 @@
+package ai.llm.cook.config;
+
+import ai.llm.cook.utils.LLMRateLimiter;
+import ai.llm.cook.utils.LLMRequestCoalescer;
+import ai.llm.cook.utils.LLMResiliencePolicy;
+import ai.llm.cook.utils.LLMResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    // Publishes the counters the LLM pipeline already keeps for its /stats endpoints; read on every scrape
+    @Bean
+    public MeterBinder llmPipelineMetrics(LLMResponseCache responseCache, LLMRequestCoalescer requestCoalescer,
+                                          LLMRateLimiter rateLimiter, LLMResiliencePolicy resiliencePolicy) {
+        return registry -> {
+            counter(registry, "llm.cache.hits", responseCache::getStats, "hits");
+            counter(registry, "llm.cache.misses", responseCache::getStats, "misses");
+            counter(registry, "llm.cache.evictions", responseCache::getStats, "evictions");
+            gauge(registry, "llm.cache.size", responseCache::getStats, "size");
+
+            counter(registry, "llm.coalescer.leaders", requestCoalescer::getStats, "leaders");
+            counter(registry, "llm.coalescer.coalesced", requestCoalescer::getStats, "coalesced");
+            gauge(registry, "llm.coalescer.waiting", requestCoalescer::getStats, "waiting");
+
+            gauge(registry, "llm.limiter.concurrency.limit", rateLimiter::getStats, "concurrencyLimit");
+            gauge(registry, "llm.limiter.in.flight", rateLimiter::getStats, "inFlight");
+            gauge(registry, "llm.limiter.queued", rateLimiter::getStats, "queued");
+            counter(registry, "llm.limiter.rejected", rateLimiter::getStats, "rejected");
+            counter(registry, "llm.limiter.throttled", rateLimiter::getStats, "throttled");
+
+            counter(registry, "llm.retries", resiliencePolicy::getStats, "retries");
+            counter(registry, "llm.hedges", resiliencePolicy::getStats, "hedges");
+            counter(registry, "llm.hedge.wins", resiliencePolicy::getStats, "hedgeWins");
+            counter(registry, "llm.circuit.opens", resiliencePolicy::getStats, "circuitOpens");
+            counter(registry, "llm.circuit.short.circuited", resiliencePolicy::getStats, "shortCircuited");
+            Gauge.builder("llm.circuit.open", resiliencePolicy,
+                            policy -> "CLOSED".equals(policy.getStats().get("circuitState")) ? 0 : 1)
+                    .register(registry);
+        };
+    }
+
+    // Hibernate second-level cache counters per region
+    @Bean
+    public MeterBinder hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                regionCounter(registry, "hibernate.cache.hits", statistics, region, CacheRegionStatistics::getHitCount);
+                regionCounter(registry, "hibernate.cache.misses", statistics, region, CacheRegionStatistics::getMissCount);
+                regionCounter(registry, "hibernate.cache.puts", statistics, region, CacheRegionStatistics::getPutCount);
+            }
+        };
+    }
+
+    private static void regionCounter(MeterRegistry registry, String name, Statistics statistics, String region,
+                                      ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder(name, statistics, source -> {
+                    CacheRegionStatistics regionStatistics = source.getCacheRegionStatistics(region);
+                    return regionStatistics != null ? count.applyAsLong(regionStatistics) : Double.NaN;
+                })
+                .tag("region", region)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, Supplier<Map<String, Object>> stats, String key) {
+        FunctionCounter.builder(name, stats, source -> value(source, key)).register(registry);
+    }
+
+    private static void gauge(MeterRegistry registry, String name, Supplier<Map<String, Object>> stats, String key) {
+        Gauge.builder(name, stats, source -> value(source, key)).register(registry);
+    }
+
+    private static double value(Supplier<Map<String, Object>> stats, String key) {
+        return stats.get().get(key) instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+}
@@ -3,8 +3,12 @@ package ai.llm.cook.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class OpenAIConfig {
 
@@ -17,9 +21,39 @@ public class OpenAIConfig {
     @Value("${openai.model}")
     private String openaiModel;
 
+    @Value("${openai.http.version:HTTP_2}")
+    private HttpClient.Version httpVersion;
+
+    @Value("${openai.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${openai.http.read-timeout-ms:60000}")
+    private long readTimeoutMs;
+
+    // Deadline for a whole non-blocking call, body included
+    @Value("${openai.http.total-timeout-ms:90000}")
+    private long totalTimeoutMs;
+
+    // One shared client keeps connections (and their TLS sessions) alive between chat requests.
+    // HTTP_2 is negotiated through ALPN and falls back to HTTP/1.1 when the server doesn't offer it.
+    // The client itself doesn't bound concurrent requests: every call holds an LLMRateLimiter permit, so
+    // llm.limiter.max-concurrency is the ceiling. Pool and keep-alive tuning of the JDK client is process-wide
+    // (-Djdk.httpclient.*) and left to the launch command.
+    @Bean
+    public HttpClient openAIHttpClient() {
+        return HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpClient openAIHttpClient) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(openAIHttpClient);
+        // Bounds the wait for the response headers; streamed bodies are read after that
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
     }
 
     public String getOpenaiApiKey() {
@@ -33,4 +67,12 @@ public class OpenAIConfig {
     public String getOpenaiModel() {
         return openaiModel;
     }
-}
\ No newline at end of file
+
+    public long getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public long getTotalTimeoutMs() {
+        return totalTimeoutMs;
+    }
+}
@@ -20,6 +20,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**","/swagger-u**").permitAll()  // Allow Swagger UI
                         .requestMatchers("/api/recipes/**").permitAll()  // Allow recipe API calls
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()  // Allow probes and metric scrapes
                         .anyRequest().authenticated()  // Secure all other endpoints
                 )
                 .csrf(AbstractHttpConfigurer::disable);  // Disable CSRF for API requests (use cautiously)
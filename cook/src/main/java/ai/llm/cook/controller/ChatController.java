@@ -2,14 +2,26 @@ package ai.llm.cook.controller;
 
 import ai.llm.cook.dto.ChatRequestDTO;
 import ai.llm.cook.dto.ChatResponseDTO;
+import ai.llm.cook.dto.RecipeBatchRequestDTO;
+import ai.llm.cook.dto.RecipeBatchResultDTO;
 import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.exception.CustomException;
 import ai.llm.cook.service.ChatService;
+import ai.llm.cook.utils.LLMRateLimiter;
+import ai.llm.cook.utils.LLMRequestCoalescer;
+import ai.llm.cook.utils.LLMResiliencePolicy;
+import ai.llm.cook.utils.LLMResponseCache;
 import ai.llm.cook.utils.ValidationUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -17,18 +29,42 @@ public class ChatController {
 
     private final ChatService chatService;
     private final ValidationUtil validationUtil;
+    private final LLMResponseCache responseCache;
+    private final LLMRequestCoalescer requestCoalescer;
+    private final LLMRateLimiter rateLimiter;
+    private final LLMResiliencePolicy resiliencePolicy;
 
     @Autowired
-    public ChatController(ChatService chatService, ValidationUtil validationUtil) {
+    public ChatController(ChatService chatService, ValidationUtil validationUtil,
+                          LLMResponseCache responseCache, LLMRequestCoalescer requestCoalescer,
+                          LLMRateLimiter rateLimiter, LLMResiliencePolicy resiliencePolicy) {
         this.chatService = chatService;
         this.validationUtil = validationUtil;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.rateLimiter = rateLimiter;
+        this.resiliencePolicy = resiliencePolicy;
     }
 
+    // Returning a Mono releases the servlet thread while the LLM call is in flight. A timeout is answered with
+    // its own status rather than 200, and a client that disconnects cancels the call.
     @PostMapping
-    public ResponseEntity<ChatResponseDTO> processChat(@RequestBody ChatRequestDTO chatRequestDTO) {
+    public Mono<ResponseEntity<ChatResponseDTO>> processChat(@RequestBody ChatRequestDTO chatRequestDTO) {
         validationUtil.validateChatRequest(chatRequestDTO.getQuery());
-        ChatResponseDTO response = chatService.processQuery(chatRequestDTO);
-        return ResponseEntity.ok(response);
+        return Mono.fromFuture(() -> chatService.processQueryAsync(chatRequestDTO))
+                .map(ResponseEntity::ok)
+                .onErrorResume(CustomException.class, e -> {
+                    ChatResponseDTO response = new ChatResponseDTO();
+                    response.setSuccess(false);
+                    response.setError(e.getMessage());
+                    return Mono.just(ResponseEntity.status(e.getStatus()).body(response));
+                });
+    }
+
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChat(@RequestBody ChatRequestDTO chatRequestDTO) {
+        validationUtil.validateChatRequest(chatRequestDTO.getQuery());
+        return chatService.streamQuery(chatRequestDTO);
     }
 
     @PostMapping("/recipe-suggestion")
@@ -38,4 +74,34 @@ public class ChatController {
         String recipeText = chatService.generateRecipeFromIngredients(Arrays.asList(ingredients.split(",")), Arrays.asList(restrictions.split(",")));
         return ResponseEntity.ok(recipeText);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/recipe-suggestion/batch")
+    public ResponseEntity<List<RecipeBatchResultDTO>> generateRecipesBatch(@RequestBody RecipeBatchRequestDTO batchRequestDTO) {
+        return ResponseEntity.ok(chatService.generateRecipes(batchRequestDTO.getItems()));
+    }
+
+    @PostMapping(value = "/recipe-suggestion/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRecipesBatch(@RequestBody RecipeBatchRequestDTO batchRequestDTO) {
+        return chatService.streamRecipes(batchRequestDTO.getItems());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+
+    @GetMapping("/coalescing/stats")
+    public ResponseEntity<Map<String, Object>> getCoalescingStats() {
+        return ResponseEntity.ok(requestCoalescer.getStats());
+    }
+
+    @GetMapping("/limiter/stats")
+    public ResponseEntity<Map<String, Object>> getLimiterStats() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+
+    @GetMapping("/resilience/stats")
+    public ResponseEntity<Map<String, Object>> getResilienceStats() {
+        return ResponseEntity.ok(resiliencePolicy.getStats());
+    }
+}
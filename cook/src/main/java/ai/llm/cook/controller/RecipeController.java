@@ -1,55 +1,133 @@
 package ai.llm.cook.controller;
 
+import ai.llm.cook.dto.RecipeImportResultDTO;
+import ai.llm.cook.dto.RecipePageDTO;
 import ai.llm.cook.dto.RecipeRequestDTO;
 import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.service.RecipeImportService;
 import ai.llm.cook.service.RecipeService;
 import ai.llm.cook.utils.ValidationUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/recipes")
 public class RecipeController {
 
+    // Clients may keep responses but must revalidate them; also stops Spring Security from sending no-store,
+    // which would keep HTTP client caches from ever holding an ETag to send back
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final RecipeService recipeService;
+    private final RecipeImportService recipeImportService;
     private final ValidationUtil validationUtil;
 
     @Autowired
-    public RecipeController(RecipeService recipeService, ValidationUtil validationUtil) {
+    public RecipeController(RecipeService recipeService, RecipeImportService recipeImportService, ValidationUtil validationUtil) {
         this.recipeService = recipeService;
+        this.recipeImportService = recipeImportService;
         this.validationUtil = validationUtil;
     }
 
     @GetMapping
-    public ResponseEntity<List<RecipeResponseDTO>> getAllRecipes() {
-        return ResponseEntity.ok(recipeService.getAllRecipes());
+    public ResponseEntity<RecipePageDTO> getAllRecipes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(recipeService.getAllRecipes(cursor, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllRecipes() {
+        return ResponseEntity.ok(recipeService::streamAllRecipes);
+    }
+
+    // e.g. /api/recipes/export?since=2025-01-31T00:00:00&gzip=true
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRecipes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(outputStream -> recipeService.exportRecipes(since, gzip, outputStream));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(recipeService.getCacheStats());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RecipeResponseDTO> getRecipeById(@PathVariable Long id) {
-        return ResponseEntity.ok(recipeService.getRecipeById(id));
+    public ResponseEntity<RecipeResponseDTO> getRecipeById(@PathVariable Long id, WebRequest request) {
+        return conditional(request, recipeService.getRecipeFreshness(id), () -> recipeService.getRecipeById(id));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<RecipeResponseDTO>> searchRecipes(@RequestParam String keyword) {
-        return ResponseEntity.ok(recipeService.searchRecipes(keyword));
+    public ResponseEntity<List<RecipeResponseDTO>> searchRecipes(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String strategy,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        // Hits depend on the whole corpus, so there's nothing cheaper to validate than the results themselves;
+        // a 304 still saves sending them
+        List<RecipeResponseDTO> recipes = recipeService.searchRecipes(keyword, strategy, page, size);
+        return conditional(request, RecipeService.Freshness.ofResponses(recipes), () -> recipes);
+    }
+
+    // e.g. /api/recipes/pantry?ingredients=eggs,spinach,feta&maxMissing=1
+    @GetMapping("/pantry")
+    public ResponseEntity<List<RecipeResponseDTO>> findRecipesForPantry(
+            @RequestParam List<String> ingredients,
+            @RequestParam(required = false) Integer maxMissing,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(recipeService.findRecipesForPantry(ingredients, maxMissing, limit));
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<List<RecipeResponseDTO>> getRecentRecipes() {
-        return ResponseEntity.ok(recipeService.getRecentRecipes());
+    public ResponseEntity<List<RecipeResponseDTO>> getRecentRecipes(WebRequest request) {
+        // Already in memory, so validating the list itself costs nothing
+        List<RecipeResponseDTO> recipes = recipeService.getRecentRecipes();
+        return conditional(request, RecipeService.Freshness.ofResponses(recipes), () -> recipes);
+    }
+
+    @GetMapping("/user/recent")
+    public ResponseEntity<List<RecipeResponseDTO>> getUserRecentRecipes(Principal principal, WebRequest request) {
+        Long userId = Long.parseLong(principal.getName());
+        List<RecipeResponseDTO> recipes = recipeService.getUserRecentRecipes(userId);
+        return conditional(request, RecipeService.Freshness.ofResponses(recipes), () -> recipes);
     }
 
     @GetMapping("/user")
-    public ResponseEntity<List<RecipeResponseDTO>> getUserRecipes(Principal principal) {
+    public ResponseEntity<RecipePageDTO> getUserRecipes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Principal principal) {
         // Assuming principal.getName() returns the user ID as a string
         Long userId = Long.parseLong(principal.getName());
-        return ResponseEntity.ok(recipeService.getUserRecipes(userId));
+        return ResponseEntity.ok(recipeService.getUserRecipes(userId, cursor, size));
+    }
+
+    @GetMapping(value = "/user/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserRecipes(Principal principal) {
+        Long userId = Long.parseLong(principal.getName());
+        return ResponseEntity.ok(outputStream -> recipeService.streamUserRecipes(userId, outputStream));
     }
 
     @PostMapping
@@ -62,6 +140,13 @@ public class RecipeController {
         return new ResponseEntity<>(createdRecipe, HttpStatus.CREATED);
     }
 
+    // Body is a JSON array of recipes or NDJSON (one recipe per line); the result lists rejected items by position
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<RecipeImportResultDTO> importRecipes(InputStream body, Principal principal) {
+        Long userId = Long.parseLong(principal.getName());
+        return ResponseEntity.ok(recipeImportService.importRecipes(body, userId));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<RecipeResponseDTO> updateRecipe(
             @PathVariable Long id,
@@ -79,4 +164,16 @@ public class RecipeController {
         recipeService.deleteRecipe(id, userId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // Answers If-None-Match / If-Modified-Since with a bodiless 304 and only builds the body when it's needed.
+    // checkNotModified also sets ETag, and Last-Modified when there is one, on the response either way.
+    private static <T> ResponseEntity<T> conditional(WebRequest request, RecipeService.Freshness freshness, Supplier<T> body) {
+        boolean notModified = freshness.lastModified() >= 0
+                ? request.checkNotModified(freshness.etag(), freshness.lastModified())
+                : request.checkNotModified(freshness.etag());
+        if (notModified) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
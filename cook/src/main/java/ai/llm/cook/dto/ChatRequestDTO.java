@@ -16,4 +16,5 @@ public class ChatRequestDTO {
     private String userId;
     private List<String> dietaryRestrictions;
     private List<String> availableIngredients;
+    private boolean bypassCache;
 }
@@ -0,0 +1,25 @@
+package ai.llm.cook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipeBatchRequestDTO {
+    private List<ItemDTO> items;
+
+    @Builder
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemDTO {
+        private List<String> ingredients;
+        private List<String> restrictions;
+    }
+}
@@ -0,0 +1,18 @@
+package ai.llm.cook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipeBatchResultDTO {
+    // Position of the item in the request, since streamed results arrive in completion order
+    private int index;
+    private RecipeResponseDTO recipe;
+    private boolean success;
+    private String error;
+}
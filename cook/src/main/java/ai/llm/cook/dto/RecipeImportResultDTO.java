@@ -0,0 +1,31 @@
+package ai.llm.cook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipeImportResultDTO {
+    private int received;
+    private int imported;
+    private int failed;
+    private long durationMs;
+    private List<ItemErrorDTO> errors;
+
+    @Builder
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemErrorDTO {
+        // Zero-based position of the item in the upload
+        private int index;
+        private String title;
+        private String error;
+    }
+}
@@ -0,0 +1,18 @@
+package ai.llm.cook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipePageDTO {
+    private List<RecipeResponseDTO> items;
+    // Opaque cursor for the following page; null on the last page
+    private String next;
+}
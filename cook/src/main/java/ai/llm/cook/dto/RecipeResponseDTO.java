@@ -1,6 +1,7 @@
 package ai.llm.cook.dto;
 
 import ai.llm.cook.model.Recipe;
+import ai.llm.cook.repository.RecipeSuggestionView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -27,6 +28,8 @@ public class RecipeResponseDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String extra;
+    // Only set on pantry matches: what the recipe needs beyond the given pantry
+    private List<String> missingIngredients;
     private boolean success;
     private String error;
 
@@ -58,4 +61,16 @@ public class RecipeResponseDTO {
         return dto;
     }
 
+    public static RecipeResponseDTO fromSuggestion(RecipeSuggestionView view) {
+        RecipeResponseDTO dto = new RecipeResponseDTO();
+        dto.setId(view.getId());
+        dto.setTitle(view.getTitle());
+        dto.setDescription(view.getDescription());
+        dto.setPreparationTime(view.getPreparationTime());
+        dto.setCookingTime(view.getCookingTime());
+        dto.setServings(view.getServings());
+        dto.setAuthorName(view.getAuthorName() != null ? view.getAuthorName() : "Anonymous");
+        return dto;
+    }
+
 }
\ No newline at end of file
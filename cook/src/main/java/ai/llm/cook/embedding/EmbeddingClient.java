@@ -0,0 +1,33 @@
+package ai.llm.cook.embedding;
+
+import java.util.List;
+
+// Turns text into unit-length vectors, so cosine similarity is a plain dot product.
+// The backend is chosen with recipe.semantic.embedder (openai or local).
+public interface EmbeddingClient {
+
+    // Identifies the vector space; vectors from different models must never be compared
+    String getModel();
+
+    int getDimensions();
+
+    List<float[]> embedAll(List<String> texts);
+
+    default float[] embed(String text) {
+        return embedAll(List.of(text)).get(0);
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,64 @@
+package ai.llm.cook.embedding;
+
+import ai.llm.cook.search.RecipeTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic, offline embedder based on feature hashing of words and character trigrams. It only
+// captures lexical overlap (plus some robustness to plurals and typos), not meaning, so it is meant
+// for tests and local development rather than as a replacement for a real embedding model.
+@Component
+@ConditionalOnProperty(name = "recipe.semantic.embedder", havingValue = "local", matchIfMissing = true)
+public class HashingEmbeddingClient implements EmbeddingClient {
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final int dimensions;
+
+    public HashingEmbeddingClient(@Value("${recipe.semantic.dimensions:256}") int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public String getModel() {
+        return "local-hashing-v1";
+    }
+
+    @Override
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(embedText(text));
+        }
+        return vectors;
+    }
+
+    private float[] embedText(String text) {
+        float[] vector = new float[dimensions];
+        for (String word : RecipeTokenizer.tokenize(text)) {
+            add(vector, word.hashCode(), WORD_WEIGHT);
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(vector, padded.substring(i, i + 3).hashCode() * 31 + 7, TRIGRAM_WEIGHT);
+            }
+        }
+        return EmbeddingClient.normalize(vector);
+    }
+
+    // The hash picks both the bucket and the sign, so collisions cancel out on average instead of piling up
+    private void add(float[] vector, int hash, float weight) {
+        int mixed = hash * 0x9E3779B9;
+        int bucket = Math.floorMod(mixed >>> 1, dimensions);
+        vector[bucket] += (mixed & 1) == 0 ? weight : -weight;
+    }
+}
@@ -0,0 +1,112 @@
+package ai.llm.cook.embedding;
+
+import ai.llm.cook.config.OpenAIConfig;
+import ai.llm.cook.exception.CustomException;
+import ai.llm.cook.prompt.TokenEstimator;
+import ai.llm.cook.utils.LLMHelper;
+import ai.llm.cook.utils.LLMMetrics;
+import ai.llm.cook.utils.LLMResiliencePolicy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// OpenAI embeddings endpoint. text-embedding-3 models can shorten their vectors, which keeps the
+// in-memory index small at little cost in retrieval quality.
+@Component
+@ConditionalOnProperty(name = "recipe.semantic.embedder", havingValue = "openai")
+public class OpenAIEmbeddingClient implements EmbeddingClient {
+
+    private final RestTemplate restTemplate;
+    private final OpenAIConfig openAIConfig;
+    private final LLMMetrics llmMetrics;
+    private final LLMHelper llmHelper;
+    private final LLMResiliencePolicy resiliencePolicy;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${openai.embeddings.url:https://api.openai.com/v1/embeddings}")
+    private String embeddingsUrl;
+
+    @Value("${openai.embeddings.model:text-embedding-3-small}")
+    private String model;
+
+    @Value("${recipe.semantic.dimensions:256}")
+    private int dimensions;
+
+    public OpenAIEmbeddingClient(RestTemplate restTemplate, OpenAIConfig openAIConfig, LLMMetrics llmMetrics,
+                                 LLMHelper llmHelper, LLMResiliencePolicy resiliencePolicy) {
+        this.restTemplate = restTemplate;
+        this.openAIConfig = openAIConfig;
+        this.llmMetrics = llmMetrics;
+        this.llmHelper = llmHelper;
+        this.resiliencePolicy = resiliencePolicy;
+    }
+
+    @Override
+    public String getModel() {
+        return model + "@" + dimensions;
+    }
+
+    @Override
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", model);
+        requestBody.put("dimensions", dimensions);
+        texts.forEach(requestBody.putArray("input")::add);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(openAIConfig.getOpenaiApiKey());
+
+        // Same rate limiter budgets and circuit as completions: both draw on the one OpenAI account
+        int estimatedTokens = texts.stream().mapToInt(TokenEstimator::count).sum();
+        HttpEntity<String> request = new HttpEntity<>(requestBody.toString(), headers);
+        return resiliencePolicy.executeWithoutHedging(() -> llmHelper.limited(estimatedTokens, model, "embed", "Error generating embeddings: ",
+                () -> parse(restTemplate.postForObject(embeddingsUrl, request, String.class), texts.size())));
+    }
+
+    private List<float[]> parse(String response, int expected) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(response);
+        } catch (Exception e) {
+            throw new CustomException("Error parsing embeddings response: " + e.getMessage(), HttpStatus.BAD_GATEWAY);
+        }
+        llmMetrics.recordUsage(model, root.get("usage"));
+
+        // Results carry their input index; don't rely on the array order
+        float[][] vectors = new float[expected][];
+        for (JsonNode item : root.path("data")) {
+            JsonNode embedding = item.path("embedding");
+            float[] vector = new float[embedding.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) embedding.get(i).asDouble();
+            }
+            vectors[item.path("index").asInt()] = EmbeddingClient.normalize(vector);
+        }
+        if (Arrays.stream(vectors).anyMatch(vector -> vector == null)) {
+            throw new CustomException("Embeddings response is missing vectors", HttpStatus.BAD_GATEWAY);
+        }
+        return new ArrayList<>(Arrays.asList(vectors));
+    }
+}
@@ -0,0 +1,25 @@
+package ai.llm.cook.event;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by RecipeService inside the write transaction; listeners that keep derived state in sync
+// should use @TransactionalEventListener so they only see committed changes
+@Getter
+@AllArgsConstructor
+public class RecipeChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long recipeId;
+    private final Long userId;
+
+    // Snapshot of the recipe after the change; null for DELETED
+    private final RecipeResponseDTO recipe;
+}
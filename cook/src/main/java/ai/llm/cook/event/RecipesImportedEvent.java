@@ -0,0 +1,17 @@
+package ai.llm.cook.event;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Published once per committed chunk of a bulk import, so listeners can update derived state for the whole
+// chunk at once instead of handling one RecipeChangedEvent per recipe
+@Getter
+@AllArgsConstructor
+public class RecipesImportedEvent {
+
+    private final Long userId;
+    private final List<RecipeResponseDTO> recipes;
+}
@@ -0,0 +1,23 @@
+package ai.llm.cook.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+// Failure reported by (or on the way to) the LLM provider, as opposed to one raised by our own code
+@Getter
+public class LLMProviderException extends CustomException {
+
+    private final Duration retryAfter;
+
+    public LLMProviderException(String message, HttpStatus status) {
+        this(message, status, null);
+    }
+
+    public LLMProviderException(String message, HttpStatus status, Duration retryAfter) {
+        super(message, status);
+        this.retryAfter = retryAfter;
+    }
+
+}
@@ -0,0 +1,144 @@
+package ai.llm.cook.feed;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// The newest recipes of one feed, newest first, without locks: readers take the current immutable snapshot
+// and writers swap in a modified copy with compareAndSet, retrying if another write got there first.
+// Updates and deletes land anywhere in the list, so a write copies it rather than advancing a ring position;
+// at a few dozen references per write that is cheaper than coordinating in-place changes.
+// The feed holds up to capacity recipes but serves only the newest size of them; the spare entries let a
+// delete be absorbed without going back to the database.
+public class RecentRecipeFeed {
+
+    // Newest first, same order as the keyset pages: createdAt, then id
+    private static final Comparator<RecipeResponseDTO> NEWEST_FIRST = Comparator
+            .comparing(RecipeResponseDTO::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(RecipeResponseDTO::getId)
+            .reversed();
+
+    private static final int MAX_LOAD_ATTEMPTS = 5;
+
+    // recipes is null until the first load. truncated means older recipes exist than the ones held, so
+    // dropping below size has to be made good from the database.
+    private record Snapshot(RecipeResponseDTO[] recipes, boolean truncated) {
+
+        boolean loaded() {
+            return recipes != null;
+        }
+    }
+
+    private final int size;
+    private final int capacity;
+    // Returns up to capacity of the newest recipes; must read committed data only
+    private final Supplier<List<RecipeResponseDTO>> loader;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(null, false));
+
+    public RecentRecipeFeed(int size, int capacity, Supplier<List<RecipeResponseDTO>> loader) {
+        this.size = size;
+        this.capacity = Math.max(size, capacity);
+        this.loader = loader;
+    }
+
+    // Loads on first use; after that a read is a single volatile load
+    public List<RecipeResponseDTO> recent() {
+        Snapshot current = snapshot.get();
+        if (!current.loaded()) {
+            List<RecipeResponseDTO> read = load();
+            current = snapshot.get();
+            if (!current.loaded()) {
+                return read.subList(0, Math.min(size, read.size()));
+            }
+        }
+        return List.of(Arrays.copyOf(current.recipes(), Math.min(size, current.recipes().length)));
+    }
+
+    // Adds or replaces by id
+    public void put(RecipeResponseDTO recipe) {
+        putAll(List.of(recipe));
+    }
+
+    public void putAll(Collection<RecipeResponseDTO> recipes) {
+        Set<Long> ids = new HashSet<>();
+        recipes.forEach(recipe -> ids.add(recipe.getId()));
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = snapshot.get();
+            if (!current.loaded()) {
+                next = new Snapshot(null, false);
+            } else {
+                RecipeResponseDTO[] held = current.recipes();
+                Set<Long> heldIds = new HashSet<>();
+                List<RecipeResponseDTO> merged = new ArrayList<>(held.length + recipes.size());
+                for (RecipeResponseDTO recipe : held) {
+                    heldIds.add(recipe.getId());
+                    if (!ids.contains(recipe.getId())) {
+                        merged.add(recipe);
+                    }
+                }
+                for (RecipeResponseDTO recipe : recipes) {
+                    // Past the oldest held recipe of a truncated feed there are recipes the feed doesn't have,
+                    // so an edit down there would end up ahead of them
+                    boolean beyondTail = current.truncated() && !heldIds.contains(recipe.getId())
+                            && held.length > 0 && NEWEST_FIRST.compare(recipe, held[held.length - 1]) > 0;
+                    if (!beyondTail) {
+                        merged.add(recipe);
+                    }
+                }
+                merged.sort(NEWEST_FIRST);
+                boolean truncated = current.truncated() || merged.size() > capacity;
+                next = new Snapshot(merged.subList(0, Math.min(capacity, merged.size())).toArray(RecipeResponseDTO[]::new), truncated);
+            }
+        } while (!snapshot.compareAndSet(current, next));
+    }
+
+    public void remove(Long recipeId) {
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = snapshot.get();
+            if (!current.loaded()) {
+                next = new Snapshot(null, false);
+            } else {
+                RecipeResponseDTO[] remaining = Arrays.stream(current.recipes())
+                        .filter(recipe -> !recipe.getId().equals(recipeId))
+                        .toArray(RecipeResponseDTO[]::new);
+                if (remaining.length == current.recipes().length) {
+                    return;
+                }
+                next = new Snapshot(remaining, current.truncated());
+            }
+        } while (!snapshot.compareAndSet(current, next));
+
+        if (next.truncated() && next.recipes().length < size) {
+            load();
+        }
+    }
+
+    // Replaces the contents with a fresh read. Every write swaps the snapshot, even one that lands while the
+    // feed isn't loaded yet, so a change committed while the read ran makes the swap fail and the read repeat
+    // instead of being lost. Returns what it read, which is current even if the swap kept failing.
+    public List<RecipeResponseDTO> load() {
+        List<RecipeResponseDTO> recipes = List.of();
+        for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+            Snapshot seen = snapshot.get();
+            List<RecipeResponseDTO> read = loader.get();
+            recipes = read.stream().sorted(NEWEST_FIRST).limit(capacity).toList();
+            if (snapshot.compareAndSet(seen, new Snapshot(recipes.toArray(RecipeResponseDTO[]::new), read.size() >= capacity))) {
+                break;
+            }
+        }
+        // If writes kept racing the read, what the feed holds is still correct, just possibly short of size
+        return recipes;
+    }
+}
@@ -0,0 +1,127 @@
+package ai.llm.cook.feed;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.event.RecipeChangedEvent;
+import ai.llm.cook.event.RecipesImportedEvent;
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.repository.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// The global recent feed and one per author. The global feed is loaded before the application takes requests
+// and a user's feed on its first read; after that both follow committed changes, so serving them doesn't touch
+// the database. Reads only go back to it when deletes have eaten through a feed's spare entries.
+@Slf4j
+@Component
+public class RecentRecipeFeeds implements SmartInitializingSingleton {
+
+    private final RecipeRepository recipeRepository;
+    private final TransactionTemplate readTransaction;
+    private final int size;
+    private final int maxUserFeeds;
+
+    private final RecentRecipeFeed global;
+    private final Map<Long, RecentRecipeFeed> userFeeds = new ConcurrentHashMap<>();
+
+    public RecentRecipeFeeds(RecipeRepository recipeRepository, PlatformTransactionManager transactionManager,
+                             @Value("${recipe.recent.size:10}") int size,
+                             @Value("${recipe.recent.max-user-feeds:10000}") int maxUserFeeds) {
+        this.recipeRepository = recipeRepository;
+        this.size = size;
+        this.maxUserFeeds = maxUserFeeds;
+        // Loads also run from after-commit listeners, where the finished transaction is still bound to the thread
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.global = newFeed(recipeRepository::findPage);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.currentTimeMillis();
+        try {
+            global.load();
+            log.info("Loaded the recent recipe feed in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Could not load the recent recipe feed, it will load on first use: {}", e.getMessage());
+        }
+    }
+
+    public List<RecipeResponseDTO> recent() {
+        return global.recent();
+    }
+
+    public List<RecipeResponseDTO> recentForUser(Long userId) {
+        RecentRecipeFeed feed = userFeeds.get(userId);
+        if (feed == null) {
+            if (userFeeds.size() >= maxUserFeeds) {
+                // Drop an arbitrary feed; it loads again the next time its user asks
+                Iterator<Long> userIds = userFeeds.keySet().iterator();
+                if (userIds.hasNext()) {
+                    userIds.next();
+                    userIds.remove();
+                }
+            }
+            feed = userFeeds.computeIfAbsent(userId, id -> newFeed(limit -> recipeRepository.findUserPage(id, limit)));
+        }
+        return feed.recent();
+    }
+
+    @TransactionalEventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        apply(global, event);
+        RecentRecipeFeed userFeed = userFeeds.get(event.getUserId());
+        if (userFeed != null) {
+            apply(userFeed, event);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRecipesImported(RecipesImportedEvent event) {
+        try {
+            global.putAll(event.getRecipes());
+            RecentRecipeFeed userFeed = userFeeds.get(event.getUserId());
+            if (userFeed != null) {
+                userFeed.putAll(event.getRecipes());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to apply import of {} recipes to the recent feeds", event.getRecipes().size(), e);
+        }
+    }
+
+    private void apply(RecentRecipeFeed feed, RecipeChangedEvent event) {
+        try {
+            if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+                feed.remove(event.getRecipeId());
+            } else {
+                feed.put(event.getRecipe());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to apply {} of recipe {} to the recent feeds", event.getType(), event.getRecipeId(), e);
+        }
+    }
+
+    // Twice the served size is held, so a burst of deletes rarely sends a feed back to the database
+    private RecentRecipeFeed newFeed(Function<Limit, List<Recipe>> query) {
+        int capacity = 2 * size;
+        return new RecentRecipeFeed(size, capacity, read(() -> query.apply(Limit.of(capacity))));
+    }
+
+    private Supplier<List<RecipeResponseDTO>> read(Supplier<List<Recipe>> query) {
+        return () -> readTransaction.execute(status -> query.get().stream().map(RecipeResponseDTO::fromEntity).toList());
+    }
+}
@@ -5,19 +5,24 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "ingredients")
+@Table(name = "ingredients", indexes = @Index(name = "idx_ingredients_recipe_id", columnList = "recipe_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ingredients")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ingredient {
 
+    public static final String ID_SEQUENCE = "ingredients_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_id")
+    @SequenceGenerator(name = "ingredient_id", sequenceName = ID_SEQUENCE, allocationSize = Recipe.ID_ALLOCATION_SIZE)
     private Long id;
 
     private String name;
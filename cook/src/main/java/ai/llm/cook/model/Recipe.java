@@ -6,18 +6,33 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.util.List;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "recipes")
+@Table(name = "recipes", indexes = {
+        @Index(name = "idx_recipes_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_recipes_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_recipes_updated_at_id", columnList = "updated_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipes")
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Recipe {
 
+    // Ids come from a sequence in blocks of ID_ALLOCATION_SIZE, so inserts can be batched (IDENTITY forces a
+    // round trip per row) and the bulk importer can reserve ids for a whole chunk up front
+    public static final String ID_SEQUENCE = "recipes_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_id")
+    @SequenceGenerator(name = "recipe_id", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
@@ -32,12 +47,15 @@ public class Recipe {
     private Integer cookingTime;
     private Integer servings;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn(name = "recipe_id")
+    // List views load ingredients for a whole page of recipes per query instead of one query per recipe
+    // Ingredient.recipe owns the foreign key, so an insert sets it directly instead of following up with an UPDATE
+    @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipes.ingredients")
     private List<Ingredient> ingredients;
 
     private LocalDateTime createdAt;
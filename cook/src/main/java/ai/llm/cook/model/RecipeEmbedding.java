@@ -0,0 +1,44 @@
+package ai.llm.cook.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Embedding vector of a recipe's text, kept so a restart doesn't have to embed the whole catalogue again.
+// A vector is reused only while both the embedding model and the hash of the embedded text still match.
+@Entity
+@Table(name = "recipe_embeddings")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeEmbedding {
+
+    @Id
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
+    @Column(nullable = false)
+    private String model;
+
+    private int dimensions;
+
+    @Column(nullable = false)
+    private long contentHash;
+
+    // Little-endian float32 values
+    @Column(nullable = false)
+    private byte[] vector;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,72 @@
+package ai.llm.cook.prompt;
+
+import java.util.List;
+
+// Keeps user-supplied text within a token budget before it goes into a prompt
+public final class PromptBudget {
+
+    private static final String ELLIPSIS = "...";
+
+    private PromptBudget() {
+    }
+
+    // Cuts the text at a word boundary once the budget is reached
+    public static String truncate(String text, int maxTokens) {
+        if (text == null || TokenEstimator.count(text) <= maxTokens) {
+            return text;
+        }
+        int budget = maxTokens - TokenEstimator.count(ELLIPSIS);
+        // Estimated tokens never span a space, so word counts can simply be added up
+        int used = 0;
+        int lastBoundary = 0;
+        while (lastBoundary < text.length()) {
+            int next = text.indexOf(' ', lastBoundary + 1);
+            if (next < 0) {
+                next = text.length();
+            }
+            used += TokenEstimator.count(text.subSequence(lastBoundary, next));
+            if (used > budget) {
+                break;
+            }
+            lastBoundary = next;
+        }
+        return text.substring(0, lastBoundary).trim() + ELLIPSIS;
+    }
+
+    // Joins items with ", " while they fit and summarizes the rest as "and N more"
+    public static String join(List<String> items, int maxTokens) {
+        if (items == null || items.isEmpty()) {
+            return "";
+        }
+        StringBuilder joined = new StringBuilder();
+        int used = 0;
+        int included = 0;
+        for (String item : items) {
+            // Reserve room for the summary of whatever may follow
+            int remaining = maxTokens - used - (included + 1 < items.size() ? summaryTokens(items.size()) : 0);
+            int cost = TokenEstimator.count(item) + (included > 0 ? 1 : 0);
+            if (cost > remaining) {
+                if (included == 0) {
+                    // One oversized item still gets a shortened spot rather than an empty list
+                    joined.append(truncate(item, Math.max(1, remaining)));
+                    included++;
+                }
+                break;
+            }
+            if (included > 0) {
+                joined.append(", ");
+            }
+            joined.append(item);
+            used += cost;
+            included++;
+        }
+        if (included < items.size()) {
+            joined.append(" and ").append(items.size() - included).append(" more");
+        }
+        return joined.toString();
+    }
+
+    private static int summaryTokens(int itemCount) {
+        return TokenEstimator.count(" and " + itemCount + " more");
+    }
+}
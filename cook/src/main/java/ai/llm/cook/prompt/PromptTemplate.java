@@ -0,0 +1,132 @@
+package ai.llm.cook.prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// A prompt template compiled once into literal and slot segments, so rendering is a single append pass.
+// {{name}} inserts a value; {{#name}}...{{/name}} is only rendered when the value is non-empty.
+// Missing values render as nothing.
+public final class PromptTemplate {
+
+    private sealed interface Segment permits Literal, Slot, Section {
+    }
+
+    private record Literal(String text) implements Segment {
+    }
+
+    private record Slot(String name) implements Segment {
+    }
+
+    private record Section(String name, List<Segment> body) implements Segment {
+    }
+
+    private final List<Segment> segments;
+    private final int literalLength;
+
+    private PromptTemplate(List<Segment> segments) {
+        this.segments = segments;
+        this.literalLength = literalLength(segments);
+    }
+
+    public static PromptTemplate compile(String template) {
+        List<Segment> segments = new ArrayList<>();
+        int end = parse(template, 0, null, segments);
+        if (end != template.length()) {
+            throw new IllegalArgumentException("Unexpected section end at " + end + " in prompt template");
+        }
+        return new PromptTemplate(List.copyOf(segments));
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder prompt = new StringBuilder(literalLength + 256);
+        render(segments, values, prompt);
+        return prompt.toString();
+    }
+
+    // Everything before the first slot or section never changes between requests
+    public String staticPrefix() {
+        StringBuilder prefix = new StringBuilder();
+        for (Segment segment : segments) {
+            if (!(segment instanceof Literal literal)) {
+                break;
+            }
+            prefix.append(literal.text());
+        }
+        return prefix.toString();
+    }
+
+    private static void render(List<Segment> segments, Map<String, String> values, StringBuilder out) {
+        for (Segment segment : segments) {
+            switch (segment) {
+                case Literal literal -> out.append(literal.text());
+                case Slot slot -> {
+                    String value = values.get(slot.name());
+                    if (value != null) {
+                        out.append(value);
+                    }
+                }
+                case Section section -> {
+                    String value = values.get(section.name());
+                    if (value != null && !value.isEmpty()) {
+                        render(section.body(), values, out);
+                    }
+                }
+            }
+        }
+    }
+
+    // Parses until the end of the text or the closing tag of the enclosing section; returns the index after it
+    private static int parse(String template, int from, String enclosing, List<Segment> out) {
+        int position = from;
+        while (position < template.length()) {
+            int open = template.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag at " + open + " in prompt template");
+            }
+            if (open > position) {
+                out.add(new Literal(template.substring(position, open)));
+            }
+
+            String tag = template.substring(open + 2, close).trim();
+            position = close + 2;
+            if (tag.startsWith("#")) {
+                String name = tag.substring(1).trim();
+                List<Segment> body = new ArrayList<>();
+                position = parse(template, position, name, body);
+                out.add(new Section(name, List.copyOf(body)));
+            } else if (tag.startsWith("/")) {
+                if (!tag.substring(1).trim().equals(enclosing)) {
+                    throw new IllegalArgumentException("Unexpected closing tag {{" + tag + "}} in prompt template");
+                }
+                return position;
+            } else {
+                out.add(new Slot(tag));
+            }
+        }
+
+        if (enclosing != null) {
+            throw new IllegalArgumentException("Section {{#" + enclosing + "}} is never closed in prompt template");
+        }
+        if (position < template.length()) {
+            out.add(new Literal(template.substring(position)));
+        }
+        return template.length();
+    }
+
+    private static int literalLength(List<Segment> segments) {
+        int length = 0;
+        for (Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                length += literal.text().length();
+            } else if (segment instanceof Section section) {
+                length += literalLength(section.body());
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,64 @@
+package ai.llm.cook.repository;
+
+import ai.llm.cook.model.Ingredient;
+import ai.llm.cook.model.Recipe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Hands out ids from the entity sequences for inserts that bypass Hibernate. Each nextval reserves the block
+// (value - ID_ALLOCATION_SIZE, value], the same interpretation Hibernate's pooled optimizer uses, so ids
+// allocated here and by the entity manager never overlap.
+@Slf4j
+@Component
+public class IdAllocator implements SmartInitializingSingleton {
+
+    private static final int BLOCK = Recipe.ID_ALLOCATION_SIZE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Runs once the schema is in place and before the web server accepts requests. Tables created while ids
+    // were IDENTITY columns already hold rows, so the new sequences are moved past the highest existing id.
+    @Override
+    public void afterSingletonsInstantiated() {
+        align(Recipe.ID_SEQUENCE, "recipes");
+        align(Ingredient.ID_SEQUENCE, "ingredients");
+    }
+
+    public long[] allocate(String sequence, int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + BLOCK - 1) / BLOCK;
+            List<Long> values = jdbcTemplate.queryForList(
+                    "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+            for (long value : values) {
+                // A fresh sequence starts at 1, whose block is only partly usable
+                for (long id = Math.max(value - BLOCK + 1, 1); id <= value && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void align(String sequence, String table) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM " + table, Long.class);
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+            if (maxId != null && lastValue != null && lastValue < maxId) {
+                jdbcTemplate.queryForObject("SELECT setval(?::regclass, ?)", Long.class, sequence, maxId);
+                log.info("Moved sequence {} past the highest {} id {}", sequence, table, maxId);
+            }
+        } catch (Exception e) {
+            log.warn("Could not align sequence {} with table {}: {}", sequence, table, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ai.llm.cook.repository;
+
+import ai.llm.cook.model.RecipeEmbedding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecipeEmbeddingRepository extends JpaRepository<RecipeEmbedding, Long> {
+}
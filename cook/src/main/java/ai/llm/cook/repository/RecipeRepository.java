@@ -2,15 +2,190 @@ package ai.llm.cook.repository;
 
 
 import ai.llm.cook.model.Recipe;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
+
+    // The search vector column isn't mapped, so its updates name a query space of their own. Without one,
+    // Hibernate has to assume a native UPDATE may have touched anything and clears the whole second-level cache.
+    String SEARCH_VECTOR_SPACE = "recipes_search_vector";
+
+    // Weighted document for full-text search: title (A), ingredient names (B), description (C)
+    String SEARCH_VECTOR = """
+            setweight(to_tsvector('english', coalesce(recipes.title, '')), 'A') ||
+            setweight(to_tsvector('english', coalesce((SELECT string_agg(i.name, ' ') FROM ingredients i WHERE i.recipe_id = recipes.id), '')), 'B') ||
+            setweight(to_tsvector('english', coalesce(recipes.description, '')), 'C')
+            """;
+
+    // Fetch plans: the detail view joins the author and ingredients in one query. List views join the
+    // author and let @BatchSize on Recipe.ingredients load a page's ingredients in a single extra query.
+    @Override
+    @EntityGraph(attributePaths = {"user", "ingredients"})
+    Optional<Recipe> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Recipe> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Recipe> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
     List<Recipe> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    @EntityGraph(attributePaths = "user")
     List<Recipe> findByTitleContainingIgnoreCase(String keyword);
-    List<Recipe> findTop10ByOrderByCreatedAtDesc();
+
+    @EntityGraph(attributePaths = "user")
+    Page<Recipe> findByTitleContainingIgnoreCase(String keyword, Pageable pageable);
+
+    // Validators for a conditional GET of one recipe
+    @Query("""
+            SELECT r.id AS id, r.updatedAt AS updatedAt, u.fullName AS authorName
+            FROM Recipe r LEFT JOIN r.user u
+            WHERE r.id = :id
+            """)
+    Optional<RecipeVersionView> findVersionById(@Param("id") Long id);
+
+    // Keyset pages over (createdAt, id), newest first; the *After variants continue below the given position
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Recipe r ORDER BY r.createdAt DESC, r.id DESC")
+    List<Recipe> findPage(Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            SELECT r FROM Recipe r
+            WHERE r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)
+            ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<Recipe> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Recipe r WHERE r.user.id = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    List<Recipe> findUserPage(@Param("userId") Long userId, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            SELECT r FROM Recipe r
+            WHERE r.user.id = :userId
+              AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id))
+            ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<Recipe> findUserPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id, Limit limit);
+
+    // Keyset pages in id order for walking the whole table in short transactions, without OFFSET or count(*)
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Recipe r WHERE r.id > :id ORDER BY r.id")
+    List<Recipe> findIdPageAfter(@Param("id") Long id, Limit limit);
+
+    // Forward-only cursors; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Recipe r ORDER BY r.createdAt DESC, r.id DESC")
+    Stream<Recipe> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Recipe r WHERE r.user.id = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    Stream<Recipe> streamByUserId(@Param("userId") Long userId);
+
+    // Export order: oldest first, so an interrupted dump can resume from the last id or updatedAt it wrote
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Recipe r ORDER BY r.id")
+    Stream<Recipe> streamAllById();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Recipe r WHERE r.updatedAt >= :since ORDER BY r.updatedAt, r.id")
+    Stream<Recipe> streamUpdatedSince(@Param("since") LocalDateTime since);
+
+    // keywords is a comma separated list of lower-case terms; recipes matching more of them rank first
+    @Query(value = """
+            SELECT r.id AS "id", r.title AS "title", r.description AS "description",
+                   r.preparation_time AS "preparationTime", r.cooking_time AS "cookingTime",
+                   r.servings AS "servings", u.full_name AS "authorName"
+            FROM recipes r
+            LEFT JOIN users u ON u.id = r.user_id
+            CROSS JOIN LATERAL (
+                SELECT count(*) AS hits
+                FROM unnest(string_to_array(:keywords, ',')) AS k(keyword)
+                WHERE lower(r.title) LIKE '%' || k.keyword || '%'
+            ) m
+            WHERE m.hits > 0
+            ORDER BY m.hits DESC, r.created_at DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<RecipeSuggestionView> findSuggestionsByTitleKeywords(@Param("keywords") String keywords, @Param("limit") int limit);
+
+    @Query("""
+            SELECT r.id AS id, r.title AS title, r.description AS description,
+                   r.preparationTime AS preparationTime, r.cookingTime AS cookingTime,
+                   r.servings AS servings, u.fullName AS authorName
+            FROM Recipe r LEFT JOIN r.user u
+            WHERE r.id IN :ids
+            """)
+    List<RecipeSuggestionView> findSuggestionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // query is a tsquery expression such as "quick:* & pasta:*"
+    @Query(value = """
+            SELECT r.* FROM recipes r
+            WHERE r.search_vector @@ to_tsquery('english', :query)
+            ORDER BY ts_rank(r.search_vector, to_tsquery('english', :query)) DESC, r.id
+            """,
+            countQuery = "SELECT count(*) FROM recipes r WHERE r.search_vector @@ to_tsquery('english', :query)",
+            nativeQuery = true)
+    Page<Recipe> searchFullText(@Param("query") String query, Pageable pageable);
+
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEARCH_VECTOR_SPACE))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE recipes SET search_vector = " + SEARCH_VECTOR + " WHERE recipes.id = :id", nativeQuery = true)
+    int refreshSearchVector(@Param("id") Long id);
+
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEARCH_VECTOR_SPACE))
+    @Modifying
+    @Query(value = "UPDATE recipes SET search_vector = " + SEARCH_VECTOR + " WHERE recipes.id IN (:ids)", nativeQuery = true)
+    int refreshSearchVectors(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEARCH_VECTOR_SPACE))
+    @Modifying
+    @Query(value = "UPDATE recipes SET search_vector = " + SEARCH_VECTOR + " WHERE recipes.search_vector IS NULL", nativeQuery = true)
+    int backfillSearchVectors();
 }
 
@@ -0,0 +1,12 @@
+package ai.llm.cook.repository;
+
+// Only the columns a chat suggestion renders; ingredients and instructions stay in the database
+public interface RecipeSuggestionView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    Integer getPreparationTime();
+    Integer getCookingTime();
+    Integer getServings();
+    String getAuthorName();
+}
@@ -0,0 +1,10 @@
+package ai.llm.cook.repository;
+
+import java.time.LocalDateTime;
+
+// Everything a rendered recipe's validators depend on, without loading the recipe itself
+public interface RecipeVersionView {
+    Long getId();
+    LocalDateTime getUpdatedAt();
+    String getAuthorName();
+}
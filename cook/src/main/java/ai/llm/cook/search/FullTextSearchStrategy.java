@@ -0,0 +1,85 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.event.RecipeChangedEvent;
+import ai.llm.cook.event.RecipesImportedEvent;
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.repository.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.stream.Collectors;
+
+// PostgreSQL full-text search over a weighted tsvector (title A, ingredient names B, description C) with a GIN index
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "recipe.search.fulltext.enabled", havingValue = "true", matchIfMissing = true)
+public class FullTextSearchStrategy implements RecipeSearchStrategy {
+
+    public static final String NAME = "fulltext";
+
+    private final RecipeRepository recipeRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FullTextSearchStrategy(RecipeRepository recipeRepository, JdbcTemplate jdbcTemplate) {
+        this.recipeRepository = recipeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Page<Recipe> search(String keyword, Pageable pageable) {
+        String query = toPrefixQuery(keyword);
+        if (query.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return recipeRepository.searchFullText(query, pageable);
+    }
+
+    // The vector is not mapped on the entity (ddl-auto can't create the GIN index), so the column and index are added here
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchSchema() {
+        jdbcTemplate.execute("ALTER TABLE recipes ADD COLUMN IF NOT EXISTS search_vector tsvector");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_recipes_search_vector ON recipes USING GIN (search_vector)");
+        int backfilled = recipeRepository.backfillSearchVectors();
+        if (backfilled > 0) {
+            log.info("Backfilled full-text search vectors for {} recipes", backfilled);
+        }
+    }
+
+    // Runs inside the write transaction, so the vector is committed together with the recipe and its ingredients
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.getType() != RecipeChangedEvent.Type.DELETED) {
+            recipeRepository.refreshSearchVector(event.getRecipeId());
+        }
+    }
+
+    // One statement for a whole import chunk
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        recipeRepository.refreshSearchVectors(event.getRecipes().stream().map(RecipeResponseDTO::getId).toList());
+    }
+
+    // "quick pasta" becomes "quick:* & pasta:*" so partially typed words still match
+    private String toPrefixQuery(String keyword) {
+        // Tokens are letters and digits only, so nothing here can break the tsquery syntax
+        return RecipeTokenizer.tokenize(keyword).stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,424 @@
+package ai.llm.cook.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Hierarchical navigable small world graph (Malkov & Yashunin) over unit-length vectors, so distance is
+// 1 - dot product. Every node lives on layer 0 and on a geometrically shrinking number of upper layers;
+// a query descends greedily through the sparse upper layers and runs a bounded best-first search on the
+// dense bottom one. Removed or replaced recipes stay in the graph as tombstones so their links keep
+// routing queries, and are skipped in the results; compacted() rebuilds the graph without them.
+public class HnswIndex {
+
+    private final int dimensions;
+    private final int maxConnections;
+    private final int maxConnectionsLayer0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    // Node storage, indexed by node id; links[node][layer] holds the neighbour count followed by the neighbours
+    private float[][] vectors = new float[1024][];
+    private long[] recipeIds = new long[1024];
+    private int[][][] links = new int[1024][][];
+    private final BitSet deleted = new BitSet();
+    private final Map<Long, Integer> nodesByRecipeId = new HashMap<>();
+    private int nodeCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public HnswIndex(int dimensions, int maxConnections, int efConstruction, int efSearch) {
+        this.dimensions = dimensions;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsLayer0 = maxConnections * 2;
+        this.efConstruction = Math.max(efConstruction, maxConnections);
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1 / Math.log(maxConnections);
+    }
+
+    // Adds the vector, replacing any previous one of the same recipe
+    public void add(long recipeId, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = nodesByRecipeId.remove(recipeId);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+
+            int node = nodeCount++;
+            ensureCapacity(nodeCount);
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            vectors[node] = vector;
+            recipeIds[node] = recipeId;
+            links[node] = new int[level + 1][];
+            for (int layer = 0; layer <= level; layer++) {
+                links[node][layer] = new int[maxConnections(layer) + 1];
+            }
+            nodesByRecipeId.put(recipeId, node);
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int layer = maxLevel; layer > level; layer--) {
+                current = greedyClosest(vector, current, layer);
+            }
+            for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+                Candidates nearest = searchLayer(vector, current, efConstruction, layer, new BitSet(nodeCount));
+                int[] neighbours = selectNeighbours(nearest, maxConnections(layer));
+                for (int neighbour : neighbours) {
+                    addLink(node, neighbour, layer);
+                    addLink(neighbour, node, layer);
+                }
+                current = nearest.closest();
+            }
+
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long recipeId) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodesByRecipeId.remove(recipeId);
+            if (node != null) {
+                deleted.set(node);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Recipe ids of the k nearest live vectors, nearest first
+    public List<Long> search(float[] query, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int layer = maxLevel; layer > 0; layer--) {
+                current = greedyClosest(query, current, layer);
+            }
+            // Tombstones take up room in the candidate list, so ask for a few more when there are many
+            int ef = Math.max(efSearch, k) + Math.min(deleted.cardinality(), k);
+            Candidates nearest = searchLayer(query, current, ef, 0, new BitSet(nodeCount));
+            nearest.sortAscending();
+
+            List<Long> results = new ArrayList<>(k);
+            for (int i = 0; i < nearest.size && results.size() < k; i++) {
+                int node = nearest.nodes[i];
+                if (!deleted.get(node)) {
+                    results.add(recipeIds[node]);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A fresh graph holding only the live vectors, in insertion order
+    public HnswIndex compacted() {
+        HnswIndex compacted = new HnswIndex(dimensions, maxConnections, efConstruction, efSearch);
+        lock.readLock().lock();
+        try {
+            for (int node = 0; node < nodeCount; node++) {
+                if (!deleted.get(node)) {
+                    compacted.add(recipeIds[node], vectors[node]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return compacted;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodesByRecipeId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return deleted.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    private int maxConnections(int layer) {
+        return layer == 0 ? maxConnectionsLayer0 : maxConnections;
+    }
+
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float currentDistance = distance(query, vectors[current]);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbours = links[current][layer];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float candidateDistance = distance(query, vectors[neighbours[i]]);
+                if (candidateDistance < currentDistance) {
+                    current = neighbours[i];
+                    currentDistance = candidateDistance;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first search keeping the ef closest nodes seen; stops once the next candidate is farther than all of them
+    private Candidates searchLayer(float[] query, int start, int ef, int layer, BitSet visited) {
+        Candidates toVisit = new Candidates(ef * 2, false);
+        Candidates nearest = new Candidates(ef + 1, true);
+        float startDistance = distance(query, vectors[start]);
+        toVisit.push(start, startDistance);
+        nearest.push(start, startDistance);
+        visited.set(start);
+
+        while (toVisit.size > 0) {
+            float candidateDistance = toVisit.peekDistance();
+            if (nearest.size >= ef && candidateDistance > nearest.peekDistance()) {
+                break;
+            }
+            int candidate = toVisit.pop();
+            int[] neighbours = links[candidate][layer];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float neighbourDistance = distance(query, vectors[neighbour]);
+                if (nearest.size < ef || neighbourDistance < nearest.peekDistance()) {
+                    toVisit.push(neighbour, neighbourDistance);
+                    nearest.push(neighbour, neighbourDistance);
+                    if (nearest.size > ef) {
+                        nearest.pop();
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    // Keeps a candidate only if it is closer to the base than to every neighbour already kept, which spreads
+    // links across directions instead of spending them all on one tight cluster; leftovers fill the remaining room
+    private int[] selectNeighbours(Candidates candidates, int limit) {
+        candidates.sortAscending();
+        int[] selected = new int[Math.min(limit, candidates.size)];
+        int count = 0;
+        int[] skipped = new int[candidates.size];
+        int skippedCount = 0;
+        for (int i = 0; i < candidates.size && count < selected.length; i++) {
+            int candidate = candidates.nodes[i];
+            float baseDistance = candidates.distances[i];
+            boolean diverse = true;
+            for (int j = 0; j < count; j++) {
+                if (distance(vectors[candidate], vectors[selected[j]]) < baseDistance) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate;
+            } else {
+                skipped[skippedCount++] = candidate;
+            }
+        }
+        for (int i = 0; i < skippedCount && count < selected.length; i++) {
+            selected[count++] = skipped[i];
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private void addLink(int from, int to, int layer) {
+        int[] neighbours = links[from][layer];
+        int count = neighbours[0];
+        if (count < neighbours.length - 1) {
+            neighbours[count + 1] = to;
+            neighbours[0] = count + 1;
+            return;
+        }
+
+        // Full: rather than re-running the heuristic over the whole list, only the newcomer is checked. It is
+        // dropped when a closer neighbour already covers its direction and otherwise takes the farthest one's place.
+        float newDistance = distance(vectors[from], vectors[to]);
+        int farthest = -1;
+        float farthestDistance = newDistance;
+        for (int i = 1; i <= count; i++) {
+            int neighbour = neighbours[i];
+            float neighbourDistance = distance(vectors[from], vectors[neighbour]);
+            if (neighbourDistance < newDistance && distance(vectors[neighbour], vectors[to]) < newDistance) {
+                return;
+            }
+            if (neighbourDistance > farthestDistance) {
+                farthest = i;
+                farthestDistance = neighbourDistance;
+            }
+        }
+        if (farthest > 0) {
+            neighbours[farthest] = to;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > vectors.length) {
+            int newLength = Math.max(capacity, vectors.length * 2);
+            vectors = Arrays.copyOf(vectors, newLength);
+            recipeIds = Arrays.copyOf(recipeIds, newLength);
+            links = Arrays.copyOf(links, newLength);
+        }
+    }
+
+    static float distance(float[] a, float[] b) {
+        float dot0 = 0;
+        float dot1 = 0;
+        float dot2 = 0;
+        float dot3 = 0;
+        int i = 0;
+        for (int bound = a.length - 3; i < bound; i += 4) {
+            dot0 += a[i] * b[i];
+            dot1 += a[i + 1] * b[i + 1];
+            dot2 += a[i + 2] * b[i + 2];
+            dot3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            dot0 += a[i] * b[i];
+        }
+        return 1 - (dot0 + dot1 + dot2 + dot3);
+    }
+
+    // Binary heap of (node, distance) pairs in parallel primitive arrays; max-heap when farthestFirst
+    private static final class Candidates {
+
+        private int[] nodes;
+        private float[] distances;
+        private int size;
+        private final boolean farthestFirst;
+
+        Candidates(int capacity, boolean farthestFirst) {
+            this.nodes = new int[Math.max(capacity, 4)];
+            this.distances = new float[nodes.length];
+            this.farthestFirst = farthestFirst;
+        }
+
+        void push(int node, float distance) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!before(distance, distances[parent])) {
+                    break;
+                }
+                nodes[index] = nodes[parent];
+                distances[index] = distances[parent];
+                index = parent;
+            }
+            nodes[index] = node;
+            distances[index] = distance;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            if (size > 0) {
+                int node = nodes[size];
+                float distance = distances[size];
+                int index = 0;
+                while (true) {
+                    int child = index * 2 + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && before(distances[child + 1], distances[child])) {
+                        child++;
+                    }
+                    if (!before(distances[child], distance)) {
+                        break;
+                    }
+                    nodes[index] = nodes[child];
+                    distances[index] = distances[child];
+                    index = child;
+                }
+                nodes[index] = node;
+                distances[index] = distance;
+            }
+            return top;
+        }
+
+        float peekDistance() {
+            return distances[0];
+        }
+
+        // Works on any heap order, the closest node isn't necessarily at the top
+        int closest() {
+            int best = 0;
+            for (int i = 1; i < size; i++) {
+                if (distances[i] < distances[best]) {
+                    best = i;
+                }
+            }
+            return nodes[best];
+        }
+
+        // Turns the heap into a plain array sorted nearest first; the heap can't be used afterwards.
+        // Non-negative floats order like their bit patterns, so (distance, node) packs into one sortable long.
+        void sortAscending() {
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = (long) Float.floatToRawIntBits(Math.max(distances[i], 0f)) << 32 | nodes[i];
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < size; i++) {
+                nodes[i] = (int) packed[i];
+                distances[i] = Float.intBitsToFloat((int) (packed[i] >>> 32));
+            }
+        }
+
+        private boolean before(float distance, float other) {
+            return farthestFirst ? distance > other : distance < other;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Ranks with the in-memory BM25 index and only loads the recipes on the requested page
+@Component
+public class IndexSearchStrategy implements RecipeSearchStrategy {
+
+    public static final String NAME = "index";
+
+    private final InvertedRecipeIndex recipeIndex;
+    private final RecipeRepository recipeRepository;
+    private final LikeSearchStrategy fallback;
+
+    @Autowired
+    public IndexSearchStrategy(InvertedRecipeIndex recipeIndex, RecipeRepository recipeRepository, LikeSearchStrategy fallback) {
+        this.recipeIndex = recipeIndex;
+        this.recipeRepository = recipeRepository;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Page<Recipe> search(String keyword, Pageable pageable) {
+        // Until the startup load finishes the index would return partial results
+        if (!recipeIndex.isReady()) {
+            return fallback.search(keyword, pageable);
+        }
+
+        // The page number comes from the request, so the offset can be far beyond any int; no index holds that
+        // many hits, and an offset at or past the hit count is an empty page
+        long offset = pageable.getOffset();
+        int limit = (int) Math.min(offset + pageable.getPageSize(), Integer.MAX_VALUE - 1);
+        List<Long> ranked = recipeIndex.search(keyword, limit);
+        if (ranked.size() <= offset) {
+            return new PageImpl<>(List.of(), pageable, ranked.size());
+        }
+
+        List<Long> ids = ranked.subList((int) offset, ranked.size());
+        Map<Long, Recipe> recipes = recipeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        List<Recipe> content = ids.stream()
+                .map(recipes::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+}
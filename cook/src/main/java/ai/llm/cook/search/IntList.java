@@ -0,0 +1,43 @@
+package ai.llm.cook.search;
+
+import java.util.Arrays;
+
+// Growable int array, so postings don't box every slot into an Integer
+final class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int removeLast() {
+        return values[--size];
+    }
+
+    // Order doesn't matter, so the last value fills the gap
+    void removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                values[i] = values[--size];
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeRequestDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Token -> recipe -> weighted term frequency over title, description and ingredient names, ranked with BM25.
+// Laid out like PantryMatcher: tokens are interned to dense int ids and every recipe occupies a reusable slot,
+// so a posting list is a pair of parallel int arrays (slots and term frequencies) instead of boxed map entries.
+@Component
+public class InvertedRecipeIndex implements RecipeIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // A title hit says more about a recipe than an ingredient hit, which says more than a description hit
+    private static final int TITLE_WEIGHT = 3;
+    private static final int INGREDIENT_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Token interning
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+
+    // Recipe slots; freed slots are reused so the arrays stay dense. The term ids of a slot are only kept to
+    // find its postings again when the recipe is replaced or removed.
+    private final Map<Long, Integer> slotsByRecipeId = new HashMap<>();
+    private long[] slotRecipeIds = new long[1024];
+    private int[][] slotTerms = new int[1024][];
+    private int[] slotLengths = new int[1024];
+    private final IntList freeSlots = new IntList();
+    private int slotCount;
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @Override
+    public void index(RecipeResponseDTO recipe) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, recipe.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, recipe.getDescription(), DESCRIPTION_WEIGHT);
+        if (recipe.getIngredients() != null) {
+            for (RecipeRequestDTO.IngredientDTO ingredient : recipe.getIngredients()) {
+                addTerms(terms, ingredient.getName(), INGREDIENT_WEIGHT);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(recipe.getId());
+
+            int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.removeLast();
+            ensureSlotCapacity(slot + 1);
+            int[] documentTerms = new int[terms.size()];
+            int length = 0;
+            int i = 0;
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                int termId = intern(term.getKey());
+                postings.get(termId).add(slot, term.getValue());
+                documentTerms[i++] = termId;
+                length += term.getValue();
+            }
+            slotRecipeIds[slot] = recipe.getId();
+            slotTerms[slot] = documentTerms;
+            slotLengths[slot] = length;
+            slotsByRecipeId.put(recipe.getId(), slot);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> search(String query, int limit) {
+        return search(RecipeTokenizer.tokenize(query), limit);
+    }
+
+    // Returns recipe ids ordered by descending BM25 score
+    public List<Long> search(List<String> terms, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = slotsByRecipeId.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            // Scores per slot in one flat array; touched remembers which slots scored so ranking doesn't walk
+            // every recipe in the index
+            double[] scores = new double[slotCount];
+            IntList touched = new IntList();
+            for (String term : new LinkedHashSet<>(terms)) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    continue;
+                }
+
+                Postings termPostings = postings.get(termId);
+                int documentFrequency = termPostings.size();
+                double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                for (int i = 0; i < documentFrequency; i++) {
+                    int slot = termPostings.slot(i);
+                    int tf = termPostings.frequency(i);
+                    if (scores[slot] == 0) {
+                        touched.add(slot);
+                    }
+                    scores[slot] += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * slotLengths[slot] / averageLength));
+                }
+            }
+
+            // Keep only the best `limit` hits in a min-heap instead of sorting every match; sized by the matches
+            // since a deep page can push the limit towards Integer.MAX_VALUE. Equal scores rank the lower id first.
+            Comparator<Integer> worstFirst = Comparator.<Integer>comparingDouble(slot -> scores[slot])
+                    .thenComparingLong(slot -> -slotRecipeIds[slot]);
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(limit, touched.size()) + 1, worstFirst);
+            for (int i = 0; i < touched.size(); i++) {
+                top.offer(touched.get(i));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ids.add(slotRecipeIds[top.poll()]);
+            }
+            Collections.reverse(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByRecipeId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : RecipeTokenizer.tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    // Caller must hold the write lock
+    private int intern(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) {
+            return id;
+        }
+        int newId = postings.size();
+        termIds.put(term, newId);
+        postings.add(new Postings());
+        return newId;
+    }
+
+    // Caller must hold the write lock
+    private void removeDocument(Long recipeId) {
+        Integer slot = slotsByRecipeId.remove(recipeId);
+        if (slot == null) {
+            return;
+        }
+
+        for (int termId : slotTerms[slot]) {
+            postings.get(termId).remove(slot);
+        }
+        totalLength -= slotLengths[slot];
+        slotTerms[slot] = null;
+        slotLengths[slot] = 0;
+        freeSlots.add(slot);
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity > slotRecipeIds.length) {
+            int newLength = Math.max(capacity, slotRecipeIds.length * 2);
+            slotRecipeIds = Arrays.copyOf(slotRecipeIds, newLength);
+            slotTerms = Arrays.copyOf(slotTerms, newLength);
+            slotLengths = Arrays.copyOf(slotLengths, newLength);
+        }
+    }
+
+    // Slots containing a term and the weighted frequency of the term in each, as parallel arrays
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        int slot(int index) {
+            return slots[index];
+        }
+
+        int frequency(int index) {
+            return frequencies[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        // Order doesn't matter, so the last posting fills the gap
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+}
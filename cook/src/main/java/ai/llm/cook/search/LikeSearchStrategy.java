@@ -0,0 +1,32 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+// The original title-only lower(title) LIKE %keyword% scan
+@Component
+public class LikeSearchStrategy implements RecipeSearchStrategy {
+
+    public static final String NAME = "like";
+
+    private final RecipeRepository recipeRepository;
+
+    @Autowired
+    public LikeSearchStrategy(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Page<Recipe> search(String keyword, Pageable pageable) {
+        return recipeRepository.findByTitleContainingIgnoreCase(keyword, pageable);
+    }
+}
@@ -0,0 +1,300 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeRequestDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Answers "which recipes can I cook with this pantry" in memory. Ingredient names are interned to dense int
+// ids; every recipe occupies a slot holding the sorted ids it requires, and each ingredient keeps a posting
+// list of the slots that use it. A query walks the postings of the pantry ingredients, counting hits per
+// slot in one flat array, and a single sequential pass then compares hits against what each recipe needs.
+// Only the top matches go back to their ingredient lists to name what is missing.
+@Component
+public class PantryMatcher implements RecipeIndex {
+
+    public record Match(Long recipeId, int requiredCount, int missingCount, List<String> missingIngredients) {
+    }
+
+    private static final int[] NO_INGREDIENTS = new int[0];
+
+    // Ingredient interning
+    private final Map<String, Integer> ingredientIds = new HashMap<>();
+    private final List<String> ingredientNames = new ArrayList<>();
+    private final List<IntList> postings = new ArrayList<>();
+
+    // Recipe slots; freed slots are reused so the arrays stay dense
+    private final Map<Long, Integer> slotsByRecipeId = new HashMap<>();
+    private long[] slotRecipeIds = new long[1024];
+    private int[][] slotIngredients = new int[1024][];
+    // Required ingredient count and how many of those are staples; 0 required marks a free slot
+    private short[] slotRequired = new short[1024];
+    private short[] slotStaples = new short[1024];
+    private final IntList freeSlots = new IntList();
+    private int slotCount;
+
+    private final BitSet stapleIds = new BitSet();
+    private final List<String> staples;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    // Staples such as salt or water are assumed to be in every pantry
+    public PantryMatcher(@Value("${recipe.pantry.staples:salt,pepper,water}") List<String> staples) {
+        this.staples = staples.stream().map(PantryMatcher::normalize).filter(name -> !name.isEmpty()).toList();
+    }
+
+    @Override
+    public void index(RecipeResponseDTO recipe) {
+        lock.writeLock().lock();
+        try {
+            removeRecipe(recipe.getId());
+            int[] required = internAll(recipe.getIngredients());
+            if (required.length == 0) {
+                return;
+            }
+
+            int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.removeLast();
+            ensureSlotCapacity(slot + 1);
+            slotRecipeIds[slot] = recipe.getId();
+            slotIngredients[slot] = required;
+            slotRequired[slot] = (short) required.length;
+            short staplesNeeded = 0;
+            for (int ingredientId : required) {
+                if (stapleIds.get(ingredientId)) {
+                    staplesNeeded++;
+                }
+            }
+            slotStaples[slot] = staplesNeeded;
+            slotsByRecipeId.put(recipe.getId(), slot);
+            for (int ingredientId : required) {
+                postings.get(ingredientId).add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeRecipe(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Recipes missing at most maxMissing ingredients, fewest missing first, then the ones using more of the pantry
+    public List<Match> match(Collection<String> pantry, int maxMissing, int limit) {
+        if (pantry == null || pantry.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet available = (BitSet) stapleIds.clone();
+            BitSet pantryIds = new BitSet();
+            for (String name : pantry) {
+                Integer id = ingredientIds.get(normalize(name));
+                if (id != null) {
+                    available.set(id);
+                    // Staples are already accounted for per slot
+                    if (!stapleIds.get(id)) {
+                        pantryIds.set(id);
+                    }
+                }
+            }
+            if (pantryIds.isEmpty()) {
+                return List.of();
+            }
+
+            // Hits per slot; every recipe reachable from a pantry ingredient ends up with a non-zero count
+            short[] hits = new short[slotCount];
+            for (int ingredientId = pantryIds.nextSetBit(0); ingredientId >= 0; ingredientId = pantryIds.nextSetBit(ingredientId + 1)) {
+                IntList slots = postings.get(ingredientId);
+                for (int i = 0; i < slots.size(); i++) {
+                    hits[slots.get(i)]++;
+                }
+            }
+
+            // Worst match at the head, so it is the one evicted once the heap is full
+            Comparator<long[]> ranking = Comparator.<long[]>comparingLong(candidate -> candidate[1])
+                    .thenComparingLong(candidate -> -candidate[2])
+                    .thenComparingLong(candidate -> candidate[0]);
+            PriorityQueue<long[]> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+
+            // Staples alone don't make a recipe a candidate, it has to use something from the pantry
+            for (int slot = 0; slot < hits.length; slot++) {
+                int hit = hits[slot];
+                if (hit == 0) {
+                    continue;
+                }
+                int missing = slotRequired[slot] - slotStaples[slot] - hit;
+                if (missing > maxMissing) {
+                    continue;
+                }
+                // {slot, missing, ingredients used from the pantry}
+                top.offer(new long[]{slot, missing, hit});
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int slot = (int) top.poll()[0];
+                matches.add(toMatch(slot, available));
+            }
+            Collections.reverse(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByRecipeId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int ingredientCount() {
+        lock.readLock().lock();
+        try {
+            return ingredientIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // "Tomatoes ", "tomato" and "TOMATO" are the same ingredient
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (String token : RecipeTokenizer.tokenize(name)) {
+            if (!normalized.isEmpty()) {
+                normalized.append(' ');
+            }
+            normalized.append(singular(token));
+        }
+        return normalized.toString();
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 4 && word.endsWith("oes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private Match toMatch(int slot, BitSet available) {
+        int[] required = slotIngredients[slot];
+        List<String> missing = new ArrayList<>();
+        for (int requiredId : required) {
+            if (!available.get(requiredId)) {
+                missing.add(ingredientNames.get(requiredId));
+            }
+        }
+        return new Match(slotRecipeIds[slot], required.length, missing.size(), missing);
+    }
+
+    // Caller must hold the write lock
+    private int[] internAll(List<RecipeRequestDTO.IngredientDTO> ingredients) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            return NO_INGREDIENTS;
+        }
+        int[] ids = new int[ingredients.size()];
+        int count = 0;
+        for (RecipeRequestDTO.IngredientDTO ingredient : ingredients) {
+            String name = normalize(ingredient.getName());
+            if (!name.isEmpty()) {
+                ids[count++] = intern(name);
+            }
+        }
+        // Sorted and de-duplicated so a recipe listing "garlic" twice needs it once
+        int[] sorted = Arrays.copyOf(ids, count);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+    }
+
+    private int intern(String name) {
+        Integer id = ingredientIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = ingredientNames.size();
+        ingredientIds.put(name, newId);
+        ingredientNames.add(name);
+        postings.add(new IntList());
+        if (staples.contains(name)) {
+            stapleIds.set(newId);
+        }
+        return newId;
+    }
+
+    // Caller must hold the write lock
+    private void removeRecipe(Long recipeId) {
+        Integer slot = slotsByRecipeId.remove(recipeId);
+        if (slot == null) {
+            return;
+        }
+        for (int ingredientId : slotIngredients[slot]) {
+            postings.get(ingredientId).removeValue(slot);
+        }
+        slotIngredients[slot] = null;
+        slotRequired[slot] = 0;
+        slotStaples[slot] = 0;
+        freeSlots.add(slot);
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity > slotRecipeIds.length) {
+            int newLength = Math.max(capacity, slotRecipeIds.length * 2);
+            slotRecipeIds = Arrays.copyOf(slotRecipeIds, newLength);
+            slotIngredients = Arrays.copyOf(slotIngredients, newLength);
+            slotRequired = Arrays.copyOf(slotRequired, newLength);
+            slotStaples = Arrays.copyOf(slotStaples, newLength);
+        }
+    }
+}
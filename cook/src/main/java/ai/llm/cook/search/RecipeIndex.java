@@ -0,0 +1,18 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+
+// In-memory structure derived from the recipe table. RecipeIndexer seeds every implementation at startup
+// and keeps it current from committed RecipeChangedEvents.
+public interface RecipeIndex {
+
+    // Adds the recipe, replacing any previous version with the same id
+    void index(RecipeResponseDTO recipe);
+
+    void remove(Long recipeId);
+
+    // Called once the startup load has gone through the whole table
+    void markReady();
+
+    boolean isReady();
+}
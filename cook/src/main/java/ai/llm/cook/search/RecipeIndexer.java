@@ -0,0 +1,168 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.event.RecipeChangedEvent;
+import ai.llm.cook.event.RecipesImportedEvent;
+import ai.llm.cook.repository.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+// Seeds every RecipeIndex from the database once the application is up and then applies committed changes.
+// Changes committed while the load runs are held back and replayed once it has finished: a page read before
+// the change would otherwise put back a recipe that was deleted, or an old version of one that was updated.
+@Slf4j
+@Component
+public class RecipeIndexer {
+
+    private final RecipeRepository recipeRepository;
+    private final List<RecipeIndex> indexes;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService chatExecutor;
+
+    @Value("${recipe.index.load-page-size:500}")
+    private int loadPageSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Changes waiting for the load to finish; null once they go straight to the indexes. Guarded by itself.
+    private final Object deferredLock = new Object();
+    private List<Runnable> deferred;
+
+    @Autowired
+    public RecipeIndexer(RecipeRepository recipeRepository, List<RecipeIndex> indexes,
+                         TransactionTemplate transactionTemplate,
+                         @Qualifier("chatExecutor") ExecutorService chatExecutor) {
+        this.recipeRepository = recipeRepository;
+        this.indexes = indexes;
+        this.transactionTemplate = transactionTemplate;
+        this.chatExecutor = chatExecutor;
+    }
+
+    // Loads in the background; until an index reports ready, callers fall back to the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexes() {
+        // Set before the first page is read, so no change can slip in between that read and the replay
+        synchronized (deferredLock) {
+            deferred = new ArrayList<>();
+        }
+        chatExecutor.execute(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                int loaded = 0;
+                long lastId = Long.MIN_VALUE;
+                boolean hasNext = true;
+                while (hasNext) {
+                    long after = lastId;
+                    // Each page gets its own short read-only transaction so lazy associations can load. Pages are
+                    // keyset reads from the last id seen, so every one costs the same however deep the load is.
+                    List<RecipeResponseDTO> recipes = transactionTemplate.execute(status -> {
+                        // Seeding reads the whole table once; keep it out of the second-level cache
+                        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                        return recipeRepository.findIdPageAfter(after, Limit.of(loadPageSize)).stream()
+                                .map(RecipeResponseDTO::fromEntity)
+                                .toList();
+                    });
+                    for (RecipeResponseDTO recipe : recipes) {
+                        indexes.forEach(index -> index.index(recipe));
+                    }
+                    loaded += recipes.size();
+                    hasNext = recipes.size() == loadPageSize;
+                    if (!recipes.isEmpty()) {
+                        lastId = recipes.get(recipes.size() - 1).getId();
+                    }
+                }
+                int replayed = replayDeferred();
+                indexes.forEach(RecipeIndex::markReady);
+                log.info("Loaded {} recipes into {} index(es) in {} ms, then replayed {} change(s) made meanwhile",
+                        loaded, indexes.size(), System.currentTimeMillis() - start, replayed);
+            } catch (Exception e) {
+                replayDeferred();
+                log.error("Failed to load recipe indexes, search stays on the database", e);
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (!defer(() -> apply(event))) {
+            apply(event);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRecipesImported(RecipesImportedEvent event) {
+        if (!defer(() -> apply(event))) {
+            apply(event);
+        }
+    }
+
+    private boolean defer(Runnable change) {
+        synchronized (deferredLock) {
+            if (deferred == null) {
+                return false;
+            }
+            deferred.add(change);
+            return true;
+        }
+    }
+
+    // Applies the held back changes in commit order, including any that arrive while it runs, and only then
+    // lets changes through directly
+    private int replayDeferred() {
+        int replayed = 0;
+        while (true) {
+            List<Runnable> changes;
+            synchronized (deferredLock) {
+                changes = deferred;
+                if (changes == null || changes.isEmpty()) {
+                    deferred = null;
+                    return replayed;
+                }
+                deferred = new ArrayList<>();
+            }
+            changes.forEach(Runnable::run);
+            replayed += changes.size();
+        }
+    }
+
+    private void apply(RecipeChangedEvent event) {
+        for (RecipeIndex index : indexes) {
+            try {
+                if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+                    index.remove(event.getRecipeId());
+                } else {
+                    index.index(event.getRecipe());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to apply {} of recipe {} to {}", event.getType(), event.getRecipeId(), index.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void apply(RecipesImportedEvent event) {
+        for (RecipeIndex index : indexes) {
+            try {
+                event.getRecipes().forEach(index::index);
+            } catch (Exception e) {
+                log.warn("Failed to apply import of {} recipes to {}", event.getRecipes().size(), index.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.model.Recipe;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+// One way of answering GET /api/recipes/search; picked by name through recipe.search.strategy or the strategy parameter
+public interface RecipeSearchStrategy {
+
+    String getName();
+
+    Page<Recipe> search(String keyword, Pageable pageable);
+}
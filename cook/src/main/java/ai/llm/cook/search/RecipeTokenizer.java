@@ -0,0 +1,48 @@
+package ai.llm.cook.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public final class RecipeTokenizer {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it",
+            "of", "on", "or", "the", "to", "with", "how", "what", "can", "you", "make", "cook", "recipe");
+
+    private RecipeTokenizer() {
+    }
+
+    // Lower-cases and splits on anything that isn't a letter or digit, without going through regex
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                addToken(tokens, current);
+            }
+        }
+        if (!current.isEmpty()) {
+            addToken(tokens, current);
+        }
+
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, StringBuilder current) {
+        String token = current.toString();
+        current.setLength(0);
+        if (token.length() >= MIN_TOKEN_LENGTH && !STOP_WORDS.contains(token)) {
+            tokens.add(token);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeRequestDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.embedding.EmbeddingClient;
+import ai.llm.cook.model.RecipeEmbedding;
+import ai.llm.cook.prompt.PromptBudget;
+import ai.llm.cook.repository.RecipeEmbeddingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Nearest-neighbour recipe lookup over text embeddings. Changes are queued and applied in batches on a
+// background worker, so the indexer and recipe writes never wait on the embedding API. Each batch first
+// reuses vectors persisted in recipe_embeddings whose model and text hash still match, embeds only the
+// rest in one request, and then inserts everything into the in-memory HNSW graph.
+@Slf4j
+@Component
+public class SemanticRecipeIndex implements RecipeIndex {
+
+    // A null text marks a removal
+    private record Change(Long recipeId, String text) {
+    }
+
+    private final EmbeddingClient embeddingClient;
+    private final RecipeEmbeddingRepository embeddingRepository;
+    private final ExecutorService chatExecutor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxTextTokens;
+
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile HnswIndex graph;
+    private volatile boolean seeded;
+    private volatile boolean ready;
+
+    @Autowired
+    public SemanticRecipeIndex(EmbeddingClient embeddingClient, RecipeEmbeddingRepository embeddingRepository,
+                               @Qualifier("chatExecutor") ExecutorService chatExecutor,
+                               @Value("${recipe.semantic.enabled:true}") boolean enabled,
+                               @Value("${recipe.semantic.batch-size:64}") int batchSize,
+                               @Value("${recipe.semantic.max-text-tokens:512}") int maxTextTokens,
+                               @Value("${recipe.semantic.hnsw.max-connections:16}") int maxConnections,
+                               @Value("${recipe.semantic.hnsw.ef-construction:100}") int efConstruction,
+                               @Value("${recipe.semantic.hnsw.ef-search:64}") int efSearch) {
+        this.embeddingClient = embeddingClient;
+        this.embeddingRepository = embeddingRepository;
+        this.chatExecutor = chatExecutor;
+        this.enabled = enabled;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxTextTokens = maxTextTokens;
+        this.graph = new HnswIndex(embeddingClient.getDimensions(), maxConnections, efConstruction, efSearch);
+    }
+
+    @Override
+    public void index(RecipeResponseDTO recipe) {
+        if (enabled) {
+            // Nothing to embed leaves the recipe out of the index
+            String text = embeddingText(recipe);
+            enqueue(new Change(recipe.getId(), text.isEmpty() ? null : text));
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        if (enabled) {
+            enqueue(new Change(recipeId, null));
+        }
+    }
+
+    // Ready once the startup backlog has been embedded, not merely queued
+    @Override
+    public void markReady() {
+        seeded = true;
+        scheduleDrain();
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Recipe ids closest in meaning to the query, nearest first
+    public List<Long> search(String query, int limit) {
+        if (!ready || query == null || query.isBlank()) {
+            return List.of();
+        }
+        try {
+            return graph.search(embeddingClient.embed(query), limit);
+        } catch (Exception e) {
+            // Suggestions are best effort; an embedding outage shouldn't fail the chat
+            log.warn("Semantic search failed: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    public int size() {
+        return graph.size();
+    }
+
+    private void enqueue(Change change) {
+        pending.add(change);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            chatExecutor.execute(this::drain);
+        }
+    }
+
+    // Single worker at a time; re-checks the queue after letting go so nothing enqueued meanwhile is stranded
+    private void drain() {
+        try {
+            List<Change> batch = new ArrayList<>(batchSize);
+            Change change;
+            while ((change = pending.poll()) != null) {
+                batch.add(change);
+                if (batch.size() == batchSize) {
+                    apply(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                apply(batch);
+            }
+            compactIfNeeded();
+            if (seeded && !ready) {
+                ready = true;
+                log.info("Semantic index ready with {} recipes using {}", graph.size(), embeddingClient.getModel());
+            }
+        } finally {
+            draining.set(false);
+        }
+        if (!pending.isEmpty() || (seeded && !ready)) {
+            scheduleDrain();
+        }
+    }
+
+    private void apply(List<Change> batch) {
+        // Only the last change per recipe matters
+        Map<Long, Change> latest = new LinkedHashMap<>();
+        batch.forEach(change -> latest.put(change.recipeId(), change));
+
+        List<Long> removed = new ArrayList<>();
+        List<Change> upserts = new ArrayList<>();
+        for (Change change : latest.values()) {
+            if (change.text() == null) {
+                removed.add(change.recipeId());
+            } else {
+                upserts.add(change);
+            }
+        }
+
+        try {
+            if (!removed.isEmpty()) {
+                removed.forEach(graph::remove);
+                embeddingRepository.deleteAllById(removed);
+            }
+            if (!upserts.isEmpty()) {
+                upsert(upserts);
+            }
+        } catch (Exception e) {
+            // The affected recipes are picked up again on their next change or on restart
+            log.warn("Failed to update semantic index for {} recipe(s)", latest.size(), e);
+        }
+    }
+
+    private void upsert(List<Change> upserts) {
+        String model = embeddingClient.getModel();
+        Map<Long, RecipeEmbedding> stored = embeddingRepository.findAllById(upserts.stream().map(Change::recipeId).toList()).stream()
+                .collect(Collectors.toMap(RecipeEmbedding::getRecipeId, Function.identity()));
+
+        List<Change> missing = new ArrayList<>();
+        for (Change change : upserts) {
+            RecipeEmbedding embedding = stored.get(change.recipeId());
+            if (embedding != null && model.equals(embedding.getModel())
+                    && embedding.getContentHash() == contentHash(change.text())
+                    && embedding.getDimensions() == graph.getDimensions()) {
+                graph.add(change.recipeId(), fromBytes(embedding.getVector()));
+            } else {
+                missing.add(change);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        List<float[]> vectors = embeddingClient.embedAll(missing.stream().map(Change::text).toList());
+        List<RecipeEmbedding> embeddings = new ArrayList<>(missing.size());
+        for (int i = 0; i < missing.size(); i++) {
+            Change change = missing.get(i);
+            float[] vector = vectors.get(i);
+            graph.add(change.recipeId(), vector);
+            embeddings.add(RecipeEmbedding.builder()
+                    .recipeId(change.recipeId())
+                    .model(model)
+                    .dimensions(vector.length)
+                    .contentHash(contentHash(change.text()))
+                    .vector(toBytes(vector))
+                    .build());
+        }
+        embeddingRepository.saveAll(embeddings);
+    }
+
+    // Tombstones still cost memory and search time; rebuild once they outnumber the live vectors
+    private void compactIfNeeded() {
+        HnswIndex current = graph;
+        if (current.deletedCount() > Math.max(current.size(), 1000)) {
+            long start = System.currentTimeMillis();
+            graph = current.compacted();
+            log.info("Compacted semantic index to {} recipes in {} ms", graph.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private String embeddingText(RecipeResponseDTO recipe) {
+        StringBuilder text = new StringBuilder();
+        if (recipe.getTitle() != null) {
+            text.append(recipe.getTitle()).append(". ");
+        }
+        if (recipe.getDescription() != null) {
+            text.append(recipe.getDescription()).append(' ');
+        }
+        if (recipe.getIngredients() != null && !recipe.getIngredients().isEmpty()) {
+            text.append("Ingredients: ").append(recipe.getIngredients().stream()
+                    .map(RecipeRequestDTO.IngredientDTO::getName)
+                    .collect(Collectors.joining(", ")));
+        }
+        return PromptBudget.truncate(text.toString().trim(), maxTextTokens);
+    }
+
+    // 64-bit FNV-1a; only has to tell whether the embedded text changed
+    static long contentHash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    static float[] fromBytes(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
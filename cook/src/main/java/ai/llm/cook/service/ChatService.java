@@ -3,108 +3,308 @@ package ai.llm.cook.service;
 import ai.llm.cook.config.OpenAIConfig;
 import ai.llm.cook.dto.ChatRequestDTO;
 import ai.llm.cook.dto.ChatResponseDTO;
+import ai.llm.cook.dto.RecipeBatchRequestDTO;
+import ai.llm.cook.dto.RecipeBatchResultDTO;
 import ai.llm.cook.dto.RecipeRequestDTO;
 import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.exception.CustomException;
 import ai.llm.cook.model.Ingredient;
+import ai.llm.cook.prompt.PromptBudget;
+import ai.llm.cook.prompt.PromptTemplate;
+import ai.llm.cook.utils.Futures;
 import ai.llm.cook.utils.LLMHelper;
+import ai.llm.cook.utils.RecipeResponseParser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
 public class ChatService {
 
+    private static final int MAX_SUGGESTIONS = 5;
+    private static final int MAX_SUGGESTION_KEYWORDS = 10;
+
+    // Static instructions come first and request-specific values last, so every prompt of a kind shares the
+    // longest possible prefix and the provider's prompt cache can reuse it
+    private static final PromptTemplate CHAT_PROMPT = PromptTemplate.compile("""
+            Answer the user's question about cooking, recipes, or food in a helpful, friendly way. \
+            If the user is asking for a recipe, provide detailed instructions, an ingredients list, and cooking tips. \
+            Respect any dietary restrictions listed below.
+
+            {{#dietaryRestrictions}}Dietary restrictions: {{dietaryRestrictions}}
+            {{/dietaryRestrictions}}{{#availableIngredients}}Available ingredients: {{availableIngredients}}
+            {{/availableIngredients}}User query: {{query}}""");
+
+    private static final PromptTemplate RECIPE_PROMPT = PromptTemplate.compile("""
+            Generate a complete recipe using only the ingredients listed below. Be creative but practical: \
+            the recipe must be delicious, feasible with only those ingredients, and strictly adhere to any \
+            dietary restrictions listed.
+
+            Your response should follow this structure:
+            TITLE: [Recipe Name]
+            DESCRIPTION: [Brief description]
+            INGREDIENTS: [List all ingredients with measurements]
+            INSTRUCTIONS: [Step by step cooking instructions]
+            COOKING_TIME: [Total time in minutes]
+            DIFFICULTY: [Easy, Medium, or Hard]
+            CUISINE: [Type of cuisine]
+
+            Ingredients: {{ingredients}}
+            {{#restrictions}}Dietary restrictions: {{restrictions}}
+            {{/restrictions}}""");
+
     private final LLMHelper llmHelper;
     private final RecipeService recipeService;
     private final OpenAIConfig openAIConfig;
+    private final ExecutorService chatExecutor;
+
+    @Value("${chat.stream.timeout-ms:120000}")
+    private long streamTimeoutMs;
+
+    @Value("${chat.llm.timeout-ms:60000}")
+    private long llmTimeoutMs;
+
+    @Value("${chat.recipes.timeout-ms:1500}")
+    private long recipesTimeoutMs;
+
+    @Value("${chat.recipes.semantic-timeout-ms:500}")
+    private long semanticTimeoutMs;
+
+    // Budgets for user-supplied text; lists beyond theirs are cut short and summarized as "and N more"
+    @Value("${chat.prompt.max-query-tokens:400}")
+    private int maxQueryTokens;
+
+    @Value("${chat.prompt.max-list-tokens:150}")
+    private int maxListTokens;
+
+    @Value("${chat.batch.max-items:50}")
+    private int batchMaxItems;
+
+    @Value("${chat.batch.max-concurrency:8}")
+    private int batchMaxConcurrency;
 
     @Autowired
-    public ChatService(LLMHelper llmHelper, RecipeService recipeService, OpenAIConfig openAIConfig) {
+    public ChatService(LLMHelper llmHelper, RecipeService recipeService, OpenAIConfig openAIConfig,
+                       @Qualifier("chatExecutor") ExecutorService chatExecutor) {
         this.llmHelper = llmHelper;
         this.recipeService = recipeService;
         this.openAIConfig = openAIConfig;
+        this.chatExecutor = chatExecutor;
     }
 
+    // A timed out LLM call surfaces as a CustomException with GATEWAY_TIMEOUT; other failures come back as success=false
     public ChatResponseDTO processQuery(ChatRequestDTO chatRequest) {
-        ChatResponseDTO response = new ChatResponseDTO();
-
         try {
-            // Prepare context for the LLM
-            Map<String, Object> context = new HashMap<>();
-            context.put("query", chatRequest.getQuery());
-            context.put("dietaryRestrictions", chatRequest.getDietaryRestrictions());
-            context.put("availableIngredients", chatRequest.getAvailableIngredients());
+            return processQueryAsync(chatRequest).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
 
-            // Get response from LLM
-            String llmResponse = llmHelper.generateResponse(preparePrompt(context));
-            response.setResponse(llmResponse);
+    // Same as processQuery, but no thread is parked while OpenAI works on the answer. The returned future fails
+    // with GATEWAY_TIMEOUT when the LLM doesn't answer in time; the abandoned call is cancelled, which frees its
+    // connection and rate limiter permit instead of letting it run to completion.
+    public CompletableFuture<ChatResponseDTO> processQueryAsync(ChatRequestDTO chatRequest) {
+        CompletableFuture<List<RecipeResponseDTO>> suggestedRecipes = suggestRecipesAsync(chatRequest);
+
+        // Each caller gets its own copy of the coalesced call, so timing it out only gives up this caller's interest
+        CompletableFuture<String> llmResponse = llmHelper
+                .generateResponseAsync(preparePrompt(prepareContext(chatRequest)), chatRequest.isBypassCache())
+                .orTimeout(llmTimeoutMs, TimeUnit.MILLISECONDS);
+
+        CompletableFuture<ChatResponseDTO> result = llmResponse
+                .thenCombine(suggestedRecipes, (llmText, recipes) -> {
+                    ChatResponseDTO response = new ChatResponseDTO();
+                    response.setResponse(llmText);
+                    response.setSuggestedRecipes(recipes);
+                    response.setSuccess(true);
+                    return response;
+                })
+                .exceptionally(e -> {
+                    suggestedRecipes.cancel(true);
+                    Throwable cause = e instanceof CompletionException completionException ? unwrap(completionException) : e;
+                    if (cause instanceof CustomException customException && customException.getStatus() == HttpStatus.GATEWAY_TIMEOUT) {
+                        throw customException;
+                    }
+                    ChatResponseDTO response = new ChatResponseDTO();
+                    response.setSuccess(false);
+                    response.setError("Failed to process your query: " + cause.getMessage());
+                    return response;
+                });
+        // A client that goes away cancels result, which has to reach the LLM call behind it
+        return Futures.propagateCancel(result, llmResponse);
+    }
+
+    // Suggestions are best effort: a slow or failing lookup yields an empty list instead of holding back the answer.
+    // The semantic lookup may have to call the embeddings API, so it runs alongside the local lookups under a
+    // shorter timeout of its own and can only add to what they found.
+    private CompletableFuture<List<RecipeResponseDTO>> suggestRecipesAsync(ChatRequestDTO chatRequest) {
+        CompletableFuture<List<RecipeResponseDTO>> semantic = CompletableFuture
+                .supplyAsync(() -> recipeService.suggestRecipesSemantic(chatRequest.getQuery(), MAX_SUGGESTIONS), chatExecutor)
+                .completeOnTimeout(List.of(), semanticTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> List.of());
+        return CompletableFuture
+                .supplyAsync(() -> findRelevantRecipes(chatRequest), chatExecutor)
+                .thenCombine(semantic, this::mergeSuggestions)
+                .completeOnTimeout(List.of(), recipesTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> List.of());
+    }
+
+    private RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof TimeoutException) {
+            return new CustomException("LLM did not respond within " + llmTimeoutMs + " ms", HttpStatus.GATEWAY_TIMEOUT);
+        }
+        return cause instanceof RuntimeException runtimeException ? runtimeException : e;
+    }
 
-            // Try to find relevant recipes based on the query
-            List<RecipeResponseDTO> suggestedRecipes = findRelevantRecipes(chatRequest);
-            response.setSuggestedRecipes(suggestedRecipes);
+    public SseEmitter streamQuery(ChatRequestDTO chatRequest) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        chatExecutor.execute(() -> streamQuery(chatRequest, emitter));
+        return emitter;
+    }
+
+    private void streamQuery(ChatRequestDTO chatRequest, SseEmitter emitter) {
+        // Recipe lookup runs alongside the LLM stream and goes out as its own event as soon as it is ready
+        CompletableFuture<Void> recipes = suggestRecipesAsync(chatRequest)
+                .thenAccept(suggestedRecipes -> sendEvent(emitter, "recipes", suggestedRecipes))
+                .exceptionally(e -> null);
+
+        try {
+            Map<String, Object> context = prepareContext(chatRequest);
+
+            llmHelper.streamResponse(preparePrompt(context),
+                    token -> sendEvent(emitter, "token", Map.of("content", token)),
+                    chatRequest.isBypassCache());
 
-            response.setSuccess(true);
+            recipes.join();
+            sendEvent(emitter, "done", Map.of("success", true));
+            emitter.complete();
         } catch (Exception e) {
-            response.setSuccess(false);
-            response.setError("Failed to process your query: " + e.getMessage());
+            recipes.cancel(true);
+            try {
+                sendEvent(emitter, "error", Map.of("success", false, "error", "Failed to process your query: " + e.getMessage()));
+                emitter.complete();
+            } catch (Exception sendFailure) {
+                emitter.completeWithError(e);
+            }
         }
+    }
 
-        return response;
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            // The client went away; abort the stream so we stop pulling tokens from the LLM
+            throw new IllegalStateException("Client disconnected", e);
+        }
     }
 
-    private String preparePrompt(Map<String, Object> context) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("You are Cook.ai, a helpful cooking assistant. ");
+    private Map<String, Object> prepareContext(ChatRequestDTO chatRequest) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", chatRequest.getQuery());
+        context.put("dietaryRestrictions", canonicalize(chatRequest.getDietaryRestrictions()));
+        context.put("availableIngredients", canonicalize(chatRequest.getAvailableIngredients()));
+        return context;
+    }
 
-        String query = (String) context.get("query");
-        prompt.append("User query: ").append(query).append("\n\n");
+    // Lists are trimmed, lower-cased, de-duplicated and sorted so that equivalent requests build the
+    // same prompt and therefore hit the same LLM cache entry
+    private List<String> canonicalize(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
 
+    String preparePrompt(Map<String, Object> context) {
         @SuppressWarnings("unchecked")
         List<String> restrictions = (List<String>) context.get("dietaryRestrictions");
-        if (restrictions != null && !restrictions.isEmpty()) {
-            prompt.append("Dietary restrictions: ").append(String.join(", ", restrictions)).append("\n\n");
-        }
-
         @SuppressWarnings("unchecked")
         List<String> ingredients = (List<String>) context.get("availableIngredients");
-        if (ingredients != null && !ingredients.isEmpty()) {
-            prompt.append("Available ingredients: ").append(String.join(", ", ingredients)).append("\n\n");
-        }
 
-        prompt.append("Provide a helpful, friendly response about cooking, recipes, or food-related questions. ");
-        prompt.append("If the user is asking for a recipe, provide detailed instructions, ingredients list, and cooking tips.");
+        Map<String, String> values = new HashMap<>();
+        values.put("query", PromptBudget.truncate((String) context.get("query"), maxQueryTokens));
+        values.put("dietaryRestrictions", PromptBudget.join(restrictions, maxListTokens));
+        values.put("availableIngredients", PromptBudget.join(ingredients, maxListTokens));
+        return CHAT_PROMPT.render(values);
+    }
 
-        return prompt.toString();
+    // Lookups served from the in-memory indexes and the database; both lists are capped at MAX_SUGGESTIONS
+    private record LocalSuggestions(List<RecipeResponseDTO> pantry, List<RecipeResponseDTO> keyword) {
     }
 
-    private List<RecipeResponseDTO> findRelevantRecipes(ChatRequestDTO chatRequest) {
+    private LocalSuggestions findRelevantRecipes(ChatRequestDTO chatRequest) {
+        // Recipes the user can cook with what they have come first
+        List<RecipeResponseDTO> pantryMatches = List.of();
+        List<String> pantry = canonicalize(chatRequest.getAvailableIngredients());
+        if (pantry != null && !pantry.isEmpty()) {
+            pantryMatches = recipeService.suggestRecipesForPantry(pantry, MAX_SUGGESTIONS);
+        }
+        if (pantryMatches.size() >= MAX_SUGGESTIONS) {
+            return new LocalSuggestions(pantryMatches, List.of());
+        }
+
         // Extract keywords from query to find relevant recipes
         String query = chatRequest.getQuery().toLowerCase();
-        List<RecipeResponseDTO> results = new ArrayList<>();
 
         // Simple keyword extraction - in a real application, use NLP or a more sophisticated approach
-        String[] keywords = extractKeywords(query);
-
-        for (String keyword : keywords) {
-            if (keyword.length() > 3) { // Ignore short words
-                List<RecipeResponseDTO> found = recipeService.searchRecipes(keyword);
-                if (!found.isEmpty()) {
-                    results.addAll(found);
-                    if (results.size() >= 5) { // Limit to 5 suggestions
-                        break;
-                    }
-                }
+        List<String> keywords = Arrays.stream(extractKeywords(query))
+                .filter(keyword -> keyword.length() > 3) // Ignore short words
+                .distinct()
+                .limit(MAX_SUGGESTION_KEYWORDS)
+                .toList();
+
+        // One ranked round trip for all keywords, limited to 5 suggestions in the database
+        return new LocalSuggestions(pantryMatches, recipeService.suggestRecipes(keywords, MAX_SUGGESTIONS));
+    }
+
+    // Pantry matches first, then recipes close in meaning to the query (which also catches ones that share no
+    // title words with it), then keyword matches
+    private List<RecipeResponseDTO> mergeSuggestions(LocalSuggestions local, List<RecipeResponseDTO> semantic) {
+        List<RecipeResponseDTO> suggestions = new ArrayList<>();
+        addSuggestions(suggestions, local.pantry());
+        addSuggestions(suggestions, semantic);
+        addSuggestions(suggestions, local.keyword());
+        return suggestions;
+    }
+
+    private void addSuggestions(List<RecipeResponseDTO> suggestions, List<RecipeResponseDTO> candidates) {
+        for (RecipeResponseDTO recipe : candidates) {
+            if (suggestions.size() < MAX_SUGGESTIONS
+                    && suggestions.stream().noneMatch(suggestion -> Objects.equals(suggestion.getId(), recipe.getId()))) {
+                suggestions.add(recipe);
             }
         }
-
-        return results.stream().distinct().limit(5).toList();
     }
 
-    private String[] extractKeywords(String query) {
+    String[] extractKeywords(String query) {
         // Remove common words and split by spaces
         // In a real app, use a proper NLP library for this
         String cleaned = query.replaceAll("how|what|when|where|why|can|you|the|for|and|with|recipe|make|cook", "");
@@ -112,16 +312,15 @@ public class ChatService {
     }
 
     public String generateRecipeFromIngredients(List<String> ingredients, List<String> restrictions) {
+        return generateRecipe(ingredients, restrictions).toString();
+    }
+
+    public RecipeResponseDTO generateRecipe(List<String> ingredients, List<String> restrictions) {
         RecipeResponseDTO generatedRecipe = new RecipeResponseDTO();
 
         try {
-            // Prepare context for the LLM
-            Map<String, Object> context = new HashMap<>();
-            context.put("availableIngredients", ingredients);
-            context.put("dietaryRestrictions", restrictions);
-
             // Create a specialized prompt for recipe generation
-            String prompt = prepareRecipeGenerationPrompt(ingredients, restrictions);
+            String prompt = prepareRecipeGenerationPrompt(canonicalize(ingredients), canonicalize(restrictions));
 
             // Get response from LLM
             String llmResponse = llmHelper.generateResponse(prompt);
@@ -134,154 +333,132 @@ public class ChatService {
             generatedRecipe.setError("Failed to generate recipe: " + e.getMessage());
         }
 
-        return generatedRecipe.toString();
+        return generatedRecipe;
     }
 
-    private String prepareRecipeGenerationPrompt(List<String> ingredients, List<String> restrictions) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("You are Cook.ai, a creative chef assistant. ");
-        prompt.append("Generate a complete recipe using only these ingredients: ");
-        prompt.append(String.join(", ", ingredients)).append("\n\n");
+    // Returns once every item has finished; wall-clock time is roughly that of the slowest generation
+    public List<RecipeBatchResultDTO> generateRecipes(List<RecipeBatchRequestDTO.ItemDTO> items) {
+        return submitBatch(items, result -> { }).stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
 
-        if (restrictions != null && !restrictions.isEmpty()) {
-            prompt.append("The recipe must respect these dietary restrictions: ");
-            prompt.append(String.join(", ", restrictions)).append("\n\n");
-        }
+    // Sends a "recipe" event per item as soon as it finishes, then a final "done" event
+    public SseEmitter streamRecipes(List<RecipeBatchRequestDTO.ItemDTO> items) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        List<CompletableFuture<RecipeBatchResultDTO>> results = submitBatch(items, result -> {
+            try {
+                sendEvent(emitter, "recipe", result);
+            } catch (IllegalStateException e) {
+                // Client went away; the remaining generations still complete and warm the cache
+            }
+        });
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+            try {
+                sendEvent(emitter, "done", Map.of("count", results.size()));
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
 
-        prompt.append("Your response should follow this structure:\n");
-        prompt.append("TITLE: [Recipe Name]\n");
-        prompt.append("DESCRIPTION: [Brief description]\n");
-        prompt.append("INGREDIENTS: [List all ingredients with measurements]\n");
-        prompt.append("INSTRUCTIONS: [Step by step cooking instructions]\n");
-        prompt.append("COOKING_TIME: [Total time in minutes]\n");
-        prompt.append("DIFFICULTY: [Easy, Medium, or Hard]\n");
-        prompt.append("CUISINE: [Type of cuisine]\n");
-
-        prompt.append("\nBe creative but practical. Ensure the recipe is delicious and feasible with only the provided ingredients ");
-        if (restrictions != null && !restrictions.isEmpty()) {
-            prompt.append("while strictly adhering to all dietary restrictions.");
-        } else {
-            prompt.append(".");
+    private List<CompletableFuture<RecipeBatchResultDTO>> submitBatch(List<RecipeBatchRequestDTO.ItemDTO> items,
+                                                                      Consumer<RecipeBatchResultDTO> onResult) {
+        if (items == null || items.isEmpty()) {
+            throw new CustomException("Batch must contain at least one item", HttpStatus.BAD_REQUEST);
+        }
+        if (items.size() > batchMaxItems) {
+            throw new CustomException("Batch cannot exceed " + batchMaxItems + " items", HttpStatus.BAD_REQUEST);
         }
 
-        return prompt.toString();
+        // Every item gets a virtual thread, but only batchMaxConcurrency of them talk to the LLM at once
+        Semaphore permits = new Semaphore(batchMaxConcurrency);
+        List<CompletableFuture<RecipeBatchResultDTO>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            RecipeBatchRequestDTO.ItemDTO item = items.get(i);
+            results.add(CompletableFuture
+                    .supplyAsync(() -> generateBatchItem(index, item, permits), chatExecutor)
+                    .thenApply(result -> {
+                        onResult.accept(result);
+                        return result;
+                    }));
+        }
+        return results;
     }
 
-    private String prepareRecipeGenerationPrompt(List<String> ingredients) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("You are Cook.ai, a creative chef assistant. ");
-        prompt.append("Generate a complete recipe using only these ingredients: ");
-        prompt.append(String.join(", ", ingredients)).append("\n\n");
+    private RecipeBatchResultDTO generateBatchItem(int index, RecipeBatchRequestDTO.ItemDTO item, Semaphore permits) {
+        RecipeBatchResultDTO result = new RecipeBatchResultDTO();
+        result.setIndex(index);
 
-        prompt.append("Your response should follow this structure:\n");
-        prompt.append("TITLE: [Recipe Name]\n");
-        prompt.append("DESCRIPTION: [Brief description]\n");
-        prompt.append("INGREDIENTS: [List all ingredients with measurements]\n");
-        prompt.append("INSTRUCTIONS: [Step by step cooking instructions]\n");
-        prompt.append("COOKING_TIME: [Total time in minutes]\n");
-        prompt.append("DIFFICULTY: [Easy, Medium, or Hard]\n");
-        prompt.append("CUISINE: [Type of cuisine]\n");
+        if (item == null || item.getIngredients() == null || item.getIngredients().isEmpty()) {
+            result.setSuccess(false);
+            result.setError("Item must list at least one ingredient");
+            return result;
+        }
 
-        prompt.append("\nBe creative but practical. Ensure the recipe is delicious and feasible with only the provided ingredients.");
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setSuccess(false);
+            result.setError("Generation was interrupted");
+            return result;
+        }
 
-        return prompt.toString();
+        try {
+            RecipeResponseDTO recipe = generateRecipe(item.getIngredients(), item.getRestrictions());
+            result.setRecipe(recipe);
+            result.setSuccess(recipe.isSuccess());
+            result.setError(recipe.getError());
+        } finally {
+            permits.release();
+        }
+        return result;
     }
 
-    private RecipeResponseDTO parseRecipeFromLLMResponse(String llmResponse) {
-        RecipeResponseDTO recipe = new RecipeResponseDTO();
-
-        // Parse the structured response from LLM
-        // This is a simplified implementation
-        // In a real app, use regex or a more robust parsing approach
+    String prepareRecipeGenerationPrompt(List<String> ingredients, List<String> restrictions) {
+        Map<String, String> values = new HashMap<>();
+        values.put("ingredients", PromptBudget.join(ingredients, maxListTokens));
+        values.put("restrictions", PromptBudget.join(restrictions, maxListTokens));
+        return RECIPE_PROMPT.render(values);
+    }
 
-        // Extract title
-        if (llmResponse.contains("TITLE:")) {
-            String[] parts = llmResponse.split("TITLE:");
-            if (parts.length > 1) {
-                String titlePart = parts[1].split("\n")[0].trim();
-                recipe.setTitle(titlePart);
-            }
-        }
+    String prepareRecipeGenerationPrompt(List<String> ingredients) {
+        return prepareRecipeGenerationPrompt(ingredients, null);
+    }
 
-        // Extract description
-        if (llmResponse.contains("DESCRIPTION:")) {
-            String[] parts = llmResponse.split("DESCRIPTION:");
-            if (parts.length > 1) {
-                String[] lines = parts[1].split("INGREDIENTS:");
-                if (lines.length > 0) {
-                    recipe.setDescription(lines[0].trim());
-                }
-            }
-        }
+    RecipeResponseDTO parseRecipeFromLLMResponse(String llmResponse) {
+        RecipeResponseParser.ParsedRecipe parsed = RecipeResponseParser.parse(llmResponse);
 
-        // Extract ingredients as a list
-        if (llmResponse.contains("INGREDIENTS:")) {
-            String[] parts = llmResponse.split("INGREDIENTS:");
-            if (parts.length > 1) {
-                String[] ingredientSection = parts[1].split("INSTRUCTIONS:");
-                if (ingredientSection.length > 0) {
-                    String[] ingredientLines = ingredientSection[0].trim().split("\n");
-                    List<RecipeRequestDTO.IngredientDTO> ingredientsList = new ArrayList<>();
-                    for (String line : ingredientLines) {
-                        if (!line.trim().isEmpty()) {
-                            ingredientsList.add(RecipeRequestDTO.IngredientDTO.builder().description(line.trim()).build());
-                        }
-                    }
-                    recipe.setIngredients(ingredientsList);
-                }
-            }
+        RecipeResponseDTO recipe = new RecipeResponseDTO();
+        recipe.setTitle(parsed.title());
+        recipe.setDescription(parsed.description());
+        if (parsed.ingredients() != null) {
+            recipe.setIngredients(parsed.ingredients().stream()
+                    .map(line -> RecipeRequestDTO.IngredientDTO.builder().description(line).build())
+                    .toList());
         }
-
-        // Extract instructions as a list
-        if (llmResponse.contains("INSTRUCTIONS:")) {
-            String[] parts = llmResponse.split("INSTRUCTIONS:");
-            if (parts.length > 1) {
-                String[] instructionSection = parts[1].split("COOKING_TIME:");
-                if (instructionSection.length > 0) {
-                    String[] instructionLines = instructionSection[0].trim().split("\n");
-                    List<String> instructionsList = new ArrayList<>();
-                    for (String line : instructionLines) {
-                        if (!line.trim().isEmpty()) {
-                            instructionsList.add(line.trim());
-                        }
-                    }
-                    recipe.setInstructions(instructionsList.toString());
-                }
-            }
+        if (parsed.instructions() != null) {
+            recipe.setInstructions(parsed.instructions().toString());
         }
+        recipe.setCookingTime(parsed.cookingTime());
 
-        // Extract cooking time
-        if (llmResponse.contains("COOKING_TIME:")) {
-            String[] parts = llmResponse.split("COOKING_TIME:");
-            if (parts.length > 1) {
-                String timePart = parts[1].split("\n")[0].trim();
-                try {
-                    int cookingTime = Integer.parseInt(timePart.replaceAll("\\D+", ""));
-                    recipe.setCookingTime(cookingTime);
-                } catch (NumberFormatException e) {
-                    recipe.setCookingTime(0);
-                }
-            }
+        // Difficulty and cuisine share the free-form extra field
+        List<String> extra = new ArrayList<>(2);
+        if (parsed.difficulty() != null) {
+            extra.add("Difficulty : " + parsed.difficulty());
         }
-
-        // Extract difficulty
-        if (llmResponse.contains("DIFFICULTY:")) {
-            String[] parts = llmResponse.split("DIFFICULTY:");
-            if (parts.length > 1) {
-                String difficultyPart = parts[1].split("\n")[0].trim();
-                recipe.setExtra("DifficultyPart : "+difficultyPart);
-            }
+        if (parsed.cuisine() != null) {
+            extra.add("Cuisine : " + parsed.cuisine());
         }
-
-        // Extract cuisine type
-        if (llmResponse.contains("CUISINE:")) {
-            String[] parts = llmResponse.split("CUISINE:");
-            if (parts.length > 1) {
-                String cuisinePart = parts[1].split("\n")[0].trim();
-                recipe.setExtra("CUISINE : "+cuisinePart);
-            }
+        if (!extra.isEmpty()) {
+            recipe.setExtra(String.join(", ", extra));
         }
 
         return recipe;
     }
-}
\ No newline at end of file
+}
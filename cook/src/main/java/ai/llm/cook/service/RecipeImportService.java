@@ -0,0 +1,230 @@
+package ai.llm.cook.service;
+
+import ai.llm.cook.dto.RecipeImportResultDTO;
+import ai.llm.cook.dto.RecipeRequestDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.event.RecipesImportedEvent;
+import ai.llm.cook.exception.CustomException;
+import ai.llm.cook.model.Ingredient;
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.model.User;
+import ai.llm.cook.repository.IdAllocator;
+import ai.llm.cook.repository.UserRepository;
+import ai.llm.cook.utils.ValidationUtil;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bulk import for curated recipe sets. Items are read one at a time from a JSON array or NDJSON body,
+// validated, and written in chunks: each chunk is one transaction with ids reserved from the entity
+// sequences up front and both tables filled with JDBC batch inserts, skipping Hibernate's per-entity work.
+@Slf4j
+@Service
+public class RecipeImportService {
+
+    private static final String INSERT_RECIPE = """
+            INSERT INTO recipes (id, title, description, instructions, preparation_time, cooking_time, servings,
+                                 user_id, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_INGREDIENT = """
+            INSERT INTO ingredients (id, name, quantity, unit, description, recipe_id)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private record Item(int index, RecipeRequestDTO request) {
+    }
+
+    private final UserRepository userRepository;
+    private final ValidationUtil validationUtil;
+    private final IdAllocator idAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${recipe.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public RecipeImportService(UserRepository userRepository, ValidationUtil validationUtil, IdAllocator idAllocator,
+                               JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.validationUtil = validationUtil;
+        this.idAllocator = idAllocator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    // Invalid items are reported by position and skipped. Chunks committed before a failure stay committed,
+    // so a partly failed import can be fixed up by re-sending only the reported items.
+    public RecipeImportResultDTO importRecipes(InputStream body, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new CustomException("User not found with id: " + userId, HttpStatus.NOT_FOUND));
+
+        long start = System.currentTimeMillis();
+        List<RecipeImportResultDTO.ItemErrorDTO> errors = new ArrayList<>();
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        int received = 0;
+        int imported = 0;
+
+        // A top-level array is unwrapped, otherwise the body is read as a sequence of whitespace-separated objects
+        try (MappingIterator<RecipeRequestDTO> items = objectMapper.readerFor(RecipeRequestDTO.class).readValues(body)) {
+            while (items.hasNextValue()) {
+                int index = received++;
+                RecipeRequestDTO request;
+                try {
+                    request = items.nextValue();
+                } catch (JsonMappingException e) {
+                    // Well-formed JSON of the wrong shape; the iterator skips to the next item
+                    errors.add(error(index, null, "Invalid recipe: " + e.getOriginalMessage()));
+                    continue;
+                }
+                try {
+                    validationUtil.validateRecipeRequest(request);
+                } catch (CustomException e) {
+                    errors.add(error(index, request != null ? request.getTitle() : null, e.getMessage()));
+                    continue;
+                }
+
+                chunk.add(new Item(index, request));
+                if (chunk.size() == chunkSize) {
+                    imported += insertChunk(chunk, user, errors);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonParseException e) {
+            // The rest of the body can't be trusted once the syntax is broken
+            errors.add(error(received, null, "Malformed JSON, import stopped: " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            errors.add(error(received, null, "Could not read upload, import stopped: " + e.getMessage()));
+        }
+        if (!chunk.isEmpty()) {
+            imported += insertChunk(chunk, user, errors);
+        }
+
+        long durationMs = System.currentTimeMillis() - start;
+        log.info("Imported {} of {} recipes for user {} in {} ms", imported, received, userId, durationMs);
+        return RecipeImportResultDTO.builder()
+                .received(received)
+                .imported(imported)
+                .failed(received - imported)
+                .durationMs(durationMs)
+                .errors(errors)
+                .build();
+    }
+
+    private int insertChunk(List<Item> chunk, User user, List<RecipeImportResultDTO.ItemErrorDTO> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk, user));
+            return chunk.size();
+        } catch (DataAccessException e) {
+            if (chunk.size() == 1) {
+                Item item = chunk.get(0);
+                errors.add(error(item.index(), item.request().getTitle(),
+                        "Could not store recipe: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                return 0;
+            }
+            // One bad row rolls back the whole chunk; retry item by item to find it and keep the rest
+            int imported = 0;
+            for (Item item : chunk) {
+                imported += insertChunk(List.of(item), user, errors);
+            }
+            return imported;
+        }
+    }
+
+    // Caller provides the transaction
+    private void insert(List<Item> chunk, User user) {
+        long[] recipeIds = idAllocator.allocate(Recipe.ID_SEQUENCE, chunk.size());
+        int ingredientCount = chunk.stream().mapToInt(item -> item.request().getIngredients().size()).sum();
+        long[] ingredientIds = idAllocator.allocate(Ingredient.ID_SEQUENCE, ingredientCount);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Recipe> recipes = new ArrayList<>(chunk.size());
+        List<Ingredient> ingredients = new ArrayList<>(ingredientCount);
+        for (int i = 0; i < chunk.size(); i++) {
+            RecipeRequestDTO request = chunk.get(i).request();
+            Recipe recipe = Recipe.builder()
+                    .id(recipeIds[i])
+                    .title(request.getTitle())
+                    .description(request.getDescription())
+                    .instructions(request.getInstructions())
+                    .preparationTime(request.getPreparationTime())
+                    .cookingTime(request.getCookingTime())
+                    .servings(request.getServings())
+                    .user(user)
+                    .ingredients(new ArrayList<>(request.getIngredients().size()))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            for (RecipeRequestDTO.IngredientDTO ingredientDTO : request.getIngredients()) {
+                Ingredient ingredient = Ingredient.builder()
+                        .id(ingredientIds[ingredients.size()])
+                        .name(ingredientDTO.getName())
+                        .quantity(ingredientDTO.getQuantity())
+                        .unit(ingredientDTO.getUnit())
+                        .description(ingredientDTO.getDescription())
+                        .recipe(recipe)
+                        .build();
+                recipe.getIngredients().add(ingredient);
+                ingredients.add(ingredient);
+            }
+            recipes.add(recipe);
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_RECIPE, recipes, recipes.size(), (ps, recipe) -> {
+            ps.setLong(1, recipe.getId());
+            ps.setString(2, recipe.getTitle());
+            ps.setString(3, recipe.getDescription());
+            ps.setString(4, recipe.getInstructions());
+            ps.setObject(5, recipe.getPreparationTime(), Types.INTEGER);
+            ps.setObject(6, recipe.getCookingTime(), Types.INTEGER);
+            ps.setObject(7, recipe.getServings(), Types.INTEGER);
+            ps.setLong(8, user.getId());
+            ps.setTimestamp(9, timestamp);
+            ps.setTimestamp(10, timestamp);
+        });
+        jdbcTemplate.batchUpdate(INSERT_INGREDIENT, ingredients, ingredients.size(), (ps, ingredient) -> {
+            ps.setLong(1, ingredient.getId());
+            ps.setString(2, ingredient.getName());
+            ps.setString(3, ingredient.getQuantity());
+            ps.setString(4, ingredient.getUnit());
+            ps.setString(5, ingredient.getDescription());
+            ps.setLong(6, ingredient.getRecipe().getId());
+        });
+
+        eventPublisher.publishEvent(new RecipesImportedEvent(user.getId(),
+                recipes.stream().map(RecipeResponseDTO::fromEntity).toList()));
+    }
+
+    private static RecipeImportResultDTO.ItemErrorDTO error(int index, String title, String message) {
+        return RecipeImportResultDTO.ItemErrorDTO.builder()
+                .index(index)
+                .title(title)
+                .error(message)
+                .build();
+    }
+}
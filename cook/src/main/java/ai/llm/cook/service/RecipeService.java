@@ -1,35 +1,160 @@
 package ai.llm.cook.service;
 
+import ai.llm.cook.dto.RecipePageDTO;
 import ai.llm.cook.dto.RecipeRequestDTO;
 import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.event.RecipeChangedEvent;
 import ai.llm.cook.exception.CustomException;
+import ai.llm.cook.feed.RecentRecipeFeeds;
 import ai.llm.cook.model.Ingredient;
 import ai.llm.cook.model.Recipe;
 import ai.llm.cook.model.User;
 import ai.llm.cook.repository.RecipeRepository;
+import ai.llm.cook.repository.RecipeSuggestionView;
+import ai.llm.cook.repository.RecipeVersionView;
 import ai.llm.cook.repository.UserRepository;
+import ai.llm.cook.search.IndexSearchStrategy;
+import ai.llm.cook.search.InvertedRecipeIndex;
+import ai.llm.cook.search.PantryMatcher;
+import ai.llm.cook.search.RecipeSearchStrategy;
+import ai.llm.cook.search.SemanticRecipeIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class RecipeService {
 
+    private static final int STREAM_CHUNK_SIZE = 50;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    // Strips LIKE wildcards and the comma separator along with everything else that can't be part of a search term
+    private static final Pattern NON_TERM_CHARACTERS = Pattern.compile("[^\\p{L}\\p{N}]");
+
     @Autowired
     private RecipeRepository recipeRepository;
 
     @Autowired
     private UserRepository userRepository;
 
-    public List<RecipeResponseDTO> getAllRecipes() {
-        return recipeRepository.findAll().stream()
-                .map(RecipeResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Autowired
+    private InvertedRecipeIndex recipeIndex;
+
+    @Autowired
+    private PantryMatcher pantryMatcher;
+
+    @Autowired
+    private SemanticRecipeIndex semanticIndex;
+
+    @Autowired
+    private RecentRecipeFeeds recentFeeds;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${recipe.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${recipe.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${recipe.search.max-results:50}")
+    private int maxSearchResults;
+
+    @Value("${recipe.pantry.max-missing:2}")
+    private int defaultMaxMissing;
+
+    @Value("${recipe.search.strategy:" + IndexSearchStrategy.NAME + "}")
+    private String defaultSearchStrategy;
+
+    private Map<String, RecipeSearchStrategy> searchStrategies;
+
+    @Autowired
+    public void setSearchStrategies(List<RecipeSearchStrategy> strategies) {
+        this.searchStrategies = strategies.stream()
+                .collect(Collectors.toMap(RecipeSearchStrategy::getName, Function.identity()));
+    }
+
+    public RecipePageDTO getAllRecipes(String cursor, Integer size) {
+        int limit = pageSize(size);
+        // One extra row tells us whether there is a next page without a count query
+        List<Recipe> recipes;
+        if (cursor == null || cursor.isEmpty()) {
+            recipes = recipeRepository.findPage(Limit.of(limit + 1));
+        } else {
+            RecipeCursor position = RecipeCursor.decode(cursor);
+            recipes = recipeRepository.findPageAfter(position.createdAt(), position.id(), Limit.of(limit + 1));
+        }
+        return toPage(recipes, limit);
+    }
+
+    // Writes every recipe as one JSON array while only ever holding the current row in memory
+    @Transactional(readOnly = true)
+    public void streamAllRecipes(OutputStream outputStream) throws IOException {
+        writeJsonArray(recipeRepository.streamAll(), outputStream);
+    }
+
+    // One JSON object per line, optionally gzip-compressed; since limits the export to recipes updated at or
+    // after that time so consumers can pick up where the previous run's newest updatedAt left off
+    @Transactional(readOnly = true)
+    public void exportRecipes(LocalDateTime since, boolean gzip, OutputStream outputStream) throws IOException {
+        Stream<Recipe> recipes = since != null ? recipeRepository.streamUpdatedSince(since) : recipeRepository.streamAllById();
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE) : outputStream;
+        try (recipes; JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+            // Lines are terminated explicitly rather than separated by the default root value separator (a space)
+            generator.setRootValueSeparator(null);
+            writeInChunks(recipes, recipe -> {
+                generator.writeObject(RecipeResponseDTO.fromEntity(recipe));
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    // Validators for conditional GETs come from a projection, so a 304 never loads the recipe or its ingredients
+    public Freshness getRecipeFreshness(Long id) {
+        RecipeVersionView version = recipeRepository.findVersionById(id)
+                .orElseThrow(() -> new CustomException("Recipe not found with id: " + id, HttpStatus.NOT_FOUND));
+        return Freshness.of(List.of(version));
     }
 
     public RecipeResponseDTO getRecipeById(Long id) {
@@ -38,12 +163,97 @@ public class RecipeService {
         return RecipeResponseDTO.fromEntity(recipe);
     }
 
-    public List<RecipeResponseDTO> searchRecipes(String keyword) {
-        return recipeRepository.findByTitleContainingIgnoreCase(keyword).stream()
+    public List<RecipeResponseDTO> searchRecipes(String keyword, String strategyName, int page, int size) {
+        RecipeSearchStrategy strategy = searchStrategies.get(strategyName != null ? strategyName : defaultSearchStrategy);
+        if (strategy == null) {
+            throw new CustomException("Unknown search strategy: " + strategyName + ", expected one of " + searchStrategies.keySet(), HttpStatus.BAD_REQUEST);
+        }
+
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxSearchResults));
+        return strategy.search(keyword, pageRequest).stream()
                 .map(RecipeResponseDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    // Ranks all keywords together instead of running one LIKE scan per keyword
+    public List<RecipeResponseDTO> suggestRecipes(List<String> keywords, int limit) {
+        List<String> terms = keywords.stream()
+                .map(keyword -> NON_TERM_CHARACTERS.matcher(keyword.toLowerCase(Locale.ROOT)).replaceAll(""))
+                .filter(keyword -> !keyword.isEmpty())
+                .distinct()
+                .toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        if (!recipeIndex.isReady()) {
+            return recipeRepository.findSuggestionsByTitleKeywords(String.join(",", terms), limit).stream()
+                    .map(RecipeResponseDTO::fromSuggestion)
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> ids = recipeIndex.search(terms, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, RecipeSuggestionView> suggestions = recipeRepository.findSuggestionsByIdIn(ids).stream()
+                .collect(Collectors.toMap(RecipeSuggestionView::getId, Function.identity()));
+        return ids.stream()
+                .map(suggestions::get)
+                .filter(Objects::nonNull)
+                .map(RecipeResponseDTO::fromSuggestion)
+                .collect(Collectors.toList());
+    }
+
+    // Recipes closest in meaning to the query; nothing until the embeddings have loaded
+    public List<RecipeResponseDTO> suggestRecipesSemantic(String query, int limit) {
+        if (!semanticIndex.isReady()) {
+            return List.of();
+        }
+        List<Long> ids = semanticIndex.search(query, Math.min(limit, maxSearchResults));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, RecipeSuggestionView> suggestions = recipeRepository.findSuggestionsByIdIn(ids).stream()
+                .collect(Collectors.toMap(RecipeSuggestionView::getId, Function.identity()));
+        return ids.stream()
+                .map(suggestions::get)
+                .filter(Objects::nonNull)
+                .map(RecipeResponseDTO::fromSuggestion)
+                .collect(Collectors.toList());
+    }
+
+    // Best effort for chat suggestions: nothing until the matcher has loaded
+    public List<RecipeResponseDTO> suggestRecipesForPantry(List<String> pantry, int limit) {
+        return pantryMatcher.isReady() ? findRecipesForPantry(pantry, null, limit) : List.of();
+    }
+
+    // Recipes cookable from the pantry with at most maxMissing extra ingredients, fewest missing first
+    public List<RecipeResponseDTO> findRecipesForPantry(List<String> pantry, Integer maxMissing, int limit) {
+        if (!pantryMatcher.isReady()) {
+            throw new CustomException("Pantry matching is still loading, please try again shortly", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        int allowedMissing = maxMissing != null ? Math.max(0, maxMissing) : defaultMaxMissing;
+        List<PantryMatcher.Match> matches = pantryMatcher.match(pantry, allowedMissing, Math.min(limit, maxSearchResults));
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, RecipeSuggestionView> suggestions = recipeRepository.findSuggestionsByIdIn(
+                        matches.stream().map(PantryMatcher.Match::recipeId).toList()).stream()
+                .collect(Collectors.toMap(RecipeSuggestionView::getId, Function.identity()));
+        List<RecipeResponseDTO> recipes = new ArrayList<>(matches.size());
+        for (PantryMatcher.Match match : matches) {
+            RecipeSuggestionView suggestion = suggestions.get(match.recipeId());
+            if (suggestion != null) {
+                RecipeResponseDTO recipe = RecipeResponseDTO.fromSuggestion(suggestion);
+                recipe.setMissingIngredients(match.missingIngredients());
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
+    }
+
     @Transactional
     public RecipeResponseDTO createRecipe(RecipeRequestDTO recipeDTO, Long userId) {
         User user = userRepository.findById(userId)
@@ -72,7 +282,9 @@ public class RecipeService {
         recipe.setIngredients(ingredients);
 
         Recipe savedRecipe = recipeRepository.save(recipe);
-        return RecipeResponseDTO.fromEntity(savedRecipe);
+        RecipeResponseDTO created = RecipeResponseDTO.fromEntity(savedRecipe);
+        eventPublisher.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.Type.CREATED, created.getId(), userId, created));
+        return created;
     }
 
     @Transactional
@@ -90,6 +302,9 @@ public class RecipeService {
         recipe.setPreparationTime(recipeDTO.getPreparationTime());
         recipe.setCookingTime(recipeDTO.getCookingTime());
         recipe.setServings(recipeDTO.getServings());
+        // Recipe isn't versioned, so an ingredient-only change wouldn't make the row dirty and @PreUpdate
+        // wouldn't run; ETags and exports rely on updatedAt moving with every update
+        recipe.setUpdatedAt(LocalDateTime.now());
 
         // Clear existing ingredients and add new ones
         recipe.getIngredients().clear();
@@ -106,7 +321,9 @@ public class RecipeService {
         }
 
         Recipe updatedRecipe = recipeRepository.save(recipe);
-        return RecipeResponseDTO.fromEntity(updatedRecipe);
+        RecipeResponseDTO updated = RecipeResponseDTO.fromEntity(updatedRecipe);
+        eventPublisher.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.Type.UPDATED, id, userId, updated));
+        return updated;
     }
 
     @Transactional
@@ -119,18 +336,180 @@ public class RecipeService {
         }
 
         recipeRepository.delete(recipe);
+        eventPublisher.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.Type.DELETED, id, userId, null));
     }
 
+    // Served from memory; the feeds follow committed changes
     public List<RecipeResponseDTO> getRecentRecipes() {
-        return recipeRepository.findTop10ByOrderByCreatedAtDesc().stream()
-                .map(RecipeResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+        return recentFeeds.recent();
+    }
+
+    public List<RecipeResponseDTO> getUserRecentRecipes(Long userId) {
+        return recentFeeds.recentForUser(userId);
+    }
+
+    // Second-level cache counters per region, as collected by Hibernate statistics
+    public Map<String, Object> getCacheStats() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.put(region, cacheCounters(regionStatistics.getHitCount(), regionStatistics.getMissCount(), regionStatistics.getPutCount()));
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        stats.put("regions", regions);
+        stats.put("entityLoads", statistics.getEntityLoadCount());
+        stats.put("collectionLoads", statistics.getCollectionLoadCount());
+        return stats;
+    }
+
+    private static Map<String, Object> cacheCounters(long hits, long misses, long puts) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        counters.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return counters;
     }
 
-    public List<RecipeResponseDTO> getUserRecipes(Long userId) {
-        return recipeRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+    public RecipePageDTO getUserRecipes(Long userId, String cursor, Integer size) {
+        int limit = pageSize(size);
+        List<Recipe> recipes;
+        if (cursor == null || cursor.isEmpty()) {
+            recipes = recipeRepository.findUserPage(userId, Limit.of(limit + 1));
+        } else {
+            RecipeCursor position = RecipeCursor.decode(cursor);
+            recipes = recipeRepository.findUserPageAfter(userId, position.createdAt(), position.id(), Limit.of(limit + 1));
+        }
+        return toPage(recipes, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamUserRecipes(Long userId, OutputStream outputStream) throws IOException {
+        writeJsonArray(recipeRepository.streamByUserId(userId), outputStream);
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        return Math.min(Math.max(size, 1), maxPageSize);
+    }
+
+    private RecipePageDTO toPage(List<Recipe> recipes, int limit) {
+        boolean hasNext = recipes.size() > limit;
+        List<Recipe> pageContent = hasNext ? recipes.subList(0, limit) : recipes;
+
+        RecipePageDTO page = new RecipePageDTO();
+        page.setItems(pageContent.stream()
                 .map(RecipeResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        if (hasNext) {
+            Recipe last = pageContent.get(pageContent.size() - 1);
+            page.setNext(new RecipeCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return page;
+    }
+
+    private void writeJsonArray(Stream<Recipe> recipes, OutputStream outputStream) throws IOException {
+        try (recipes; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            writeInChunks(recipes, recipe -> generator.writeObject(RecipeResponseDTO.fromEntity(recipe)));
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeInChunks(Stream<Recipe> recipes, RecipeWriter writer) throws IOException {
+        // A full dump would otherwise push every row through the second-level cache and evict the hot entries
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        // Rows are written in chunks so that @BatchSize can load the ingredients of a whole chunk in one query
+        List<Recipe> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        Iterator<Recipe> iterator = recipes.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                for (Recipe recipe : chunk) {
+                    writer.write(recipe);
+                    // Detach as we go so the persistence context doesn't grow with the result set
+                    entityManager.detach(recipe);
+                }
+                chunk.clear();
+            }
+        }
+    }
+
+    // Validators of a recipe response: a strong ETag over everything rendered that can change (the recipe via
+    // updatedAt, and the author's name) plus Last-Modified, -1 when there is nothing to date.
+    // Last-Modified doesn't see author renames; clients that send If-None-Match aren't affected.
+    public record Freshness(String etag, long lastModified) {
+
+        public static Freshness of(List<? extends RecipeVersionView> versions) {
+            StringBuilder content = new StringBuilder();
+            LocalDateTime newest = null;
+            for (RecipeVersionView version : versions) {
+                content.append(version.getId()).append('|')
+                        .append(version.getUpdatedAt()).append('|')
+                        .append(version.getAuthorName()).append('\n');
+                if (version.getUpdatedAt() != null && (newest == null || version.getUpdatedAt().isAfter(newest))) {
+                    newest = version.getUpdatedAt();
+                }
+            }
+            String etag = '"' + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+            long lastModified = newest != null ? newest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+            return new Freshness(etag, lastModified);
+        }
+
+        // For lists such as search hits or the in-memory feeds. These carry no Last-Modified: a recipe dropping
+        // out of a list doesn't move its newest updatedAt, so only the ETag can tell the list changed.
+        public static Freshness ofResponses(List<RecipeResponseDTO> recipes) {
+            return new Freshness(of(recipes.stream().map(ResponseVersion::new).toList()).etag(), -1);
+        }
+    }
+
+    private record ResponseVersion(RecipeResponseDTO recipe) implements RecipeVersionView {
+
+        @Override
+        public Long getId() {
+            return recipe.getId();
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return recipe.getUpdatedAt();
+        }
+
+        @Override
+        public String getAuthorName() {
+            return recipe.getAuthorName();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecipeWriter {
+        void write(Recipe recipe) throws IOException;
+    }
+
+    // Position of the last row of a page, serialized as base64url("createdAt|id") so clients treat it as opaque
+    private record RecipeCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static RecipeCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new RecipeCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new CustomException("Invalid cursor", HttpStatus.BAD_REQUEST);
+            }
+        }
     }
 }
 
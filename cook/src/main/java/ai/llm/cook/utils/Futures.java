@@ -0,0 +1,40 @@
+package ai.llm.cook.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// CompletableFuture stages don't pass cancellation back to the stages they were derived from, so a caller that
+// cancels or times out its future would otherwise leave the upstream call running, holding a connection and a
+// rate limiter permit until it finishes on its own
+public final class Futures {
+
+    private Futures() {
+    }
+
+    // Cancels upstream when downstream completes first. A stage derived from upstream only completes ahead of it
+    // when its caller cancelled it or timed it out.
+    public static <T> CompletableFuture<T> propagateCancel(CompletableFuture<T> downstream, CompletableFuture<?> upstream) {
+        downstream.whenComplete((value, error) -> {
+            if (!upstream.isDone()) {
+                upstream.cancel(true);
+            }
+        });
+        return downstream;
+    }
+
+    // Completes target with the outcome of source, and cancels source if target is completed first
+    public static <T> void forward(CompletableFuture<? extends T> source, CompletableFuture<T> target) {
+        source.whenComplete((value, error) -> {
+            if (error == null) {
+                target.complete(value);
+            } else {
+                target.completeExceptionally(unwrap(error));
+            }
+        });
+        propagateCancel(target, source);
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -2,62 +2,111 @@ package ai.llm.cook.utils;
 
 import ai.llm.cook.config.OpenAIConfig;
 import ai.llm.cook.exception.CustomException;
+import ai.llm.cook.exception.LLMProviderException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
-
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Component
 public class LLMHelper {
 
+    private static final String SSE_DATA_PREFIX = "data:";
+    private static final String SSE_DONE = "[DONE]";
+    private static final double TEMPERATURE = 0.7;
+    private static final int MAX_COMPLETION_TOKENS = 1000;
+    // Shared by every request so the provider can cache the prefix; prompts must not repeat it
+    private static final String SYSTEM_PROMPT = "You are Cook.ai, a cooking assistant specializing in recipes, cooking techniques, and culinary advice. Provide helpful, accurate, and friendly responses related to cooking.";
+    private static final String STRUCTURED_SYSTEM_PROMPT = SYSTEM_PROMPT + " Provide responses in the requested JSON format.";
+
     private final RestTemplate restTemplate;
+    private final HttpClient httpClient;
     private final OpenAIConfig openAIConfig;
+    private final LLMResponseCache responseCache;
+    private final LLMRequestCoalescer requestCoalescer;
+    private final LLMRateLimiter rateLimiter;
+    private final LLMResiliencePolicy resiliencePolicy;
+    private final LLMMetrics llmMetrics;
+    private final ExecutorService chatExecutor;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public LLMHelper(RestTemplate restTemplate, OpenAIConfig openAIConfig) {
+    public LLMHelper(RestTemplate restTemplate, HttpClient httpClient, OpenAIConfig openAIConfig,
+                     LLMResponseCache responseCache, LLMRequestCoalescer requestCoalescer,
+                     LLMRateLimiter rateLimiter, LLMResiliencePolicy resiliencePolicy, LLMMetrics llmMetrics,
+                     @Qualifier("chatExecutor") ExecutorService chatExecutor) {
         this.restTemplate = restTemplate;
+        this.httpClient = httpClient;
         this.openAIConfig = openAIConfig;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.rateLimiter = rateLimiter;
+        this.resiliencePolicy = resiliencePolicy;
+        this.llmMetrics = llmMetrics;
+        this.chatExecutor = chatExecutor;
         this.objectMapper = new ObjectMapper();
     }
 
     public String generateResponse(String prompt) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(openAIConfig.getOpenaiApiKey());
-
-            // Create request body
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            requestBody.put("model", openAIConfig.getOpenaiModel());
-            requestBody.put("temperature", 0.7);
-            requestBody.put("max_tokens", 1000);
-
-            ArrayNode messagesArray = objectMapper.createArrayNode();
-
-            ObjectNode systemMessage = objectMapper.createObjectNode();
-            systemMessage.put("role", "system");
-            systemMessage.put("content", "You are Cook.ai, a cooking assistant specializing in recipes, cooking techniques, and culinary advice. Provide helpful, accurate, and friendly responses related to cooking.");
-            messagesArray.add(systemMessage);
+        return generateResponse(prompt, false);
+    }
 
-            ObjectNode userMessage = objectMapper.createObjectNode();
-            userMessage.put("role", "user");
-            userMessage.put("content", prompt);
-            messagesArray.add(userMessage);
+    // bypassCache skips the lookup but still refreshes the cached entry with the fresh completion
+    public String generateResponse(String prompt, boolean bypassCache) {
+        String cacheKey = LLMResponseCache.key("text", openAIConfig.getOpenaiModel(), TEMPERATURE, prompt);
+        if (!bypassCache) {
+            String cached = responseCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
 
-            requestBody.set("messages", messagesArray);
+        // Identical concurrent prompts share one upstream call; only the caller that made it fills the cache
+        return requestCoalescer.execute(cacheKey, () -> {
+            String content = resiliencePolicy.execute(() -> requestResponse(prompt));
+            responseCache.put(cacheKey, content);
+            return content;
+        });
+    }
 
-            HttpEntity<String> request = new HttpEntity<>(requestBody.toString(), headers);
+    private String requestResponse(String prompt) {
+        return limited(prompt, "generateResponse", "Error generating response from LLM: ", () -> {
+            HttpEntity<String> request = new HttpEntity<>(createChatRequest(prompt, false).toString(), createHeaders());
 
             ResponseEntity<String> response = restTemplate.postForEntity(
                     openAIConfig.getOpenaiApiUrl(),
@@ -66,55 +115,205 @@ public class LLMHelper {
             );
 
             // Parse the response
-            JsonNode responseJson = objectMapper.readTree(response.getBody());
-            JsonNode choices = responseJson.get("choices");
+            return extractContent(response.getBody());
+        });
+    }
 
-            if (choices != null && choices.isArray() && !choices.isEmpty()) {
-                JsonNode firstChoice = choices.get(0);
-                JsonNode message = firstChoice.get("message");
-                if (message != null) {
-                    return message.get("content").asText();
-                }
+    private <T> T limited(String prompt, String method, String errorPrefix, Supplier<T> call) {
+        return limited(LLMRateLimiter.estimateTokens(prompt, MAX_COMPLETION_TOKENS), openAIConfig.getOpenaiModel(), method, errorPrefix, call);
+    }
+
+    // Runs a blocking upstream call under a rate limiter permit and reports how it went. Failures come back as
+    // LLMProviderException with the provider's status, which is what the resilience policy classifies.
+    public <T> T limited(int estimatedTokens, String model, String method, String errorPrefix, Supplier<T> call) {
+        LLMRateLimiter.Permit permit = rateLimiter.acquire(estimatedTokens);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            permit.succeeded();
+            llmMetrics.recordCall(model, method, System.nanoTime() - start, null);
+            return result;
+        } catch (RuntimeException e) {
+            CustomException failure = release(permit, e, errorPrefix);
+            llmMetrics.recordCall(model, method, System.nanoTime() - start, failure);
+            throw failure;
+        }
+    }
+
+    private static CustomException release(LLMRateLimiter.Permit permit, RuntimeException error, String errorPrefix) {
+        if (error instanceof HttpStatusCodeException e) {
+            HttpStatus status = upstreamStatus(e.getStatusCode().value());
+            Duration retryAfter = null;
+            if (status == HttpStatus.TOO_MANY_REQUESTS) {
+                HttpHeaders headers = e.getResponseHeaders();
+                retryAfter = headers == null ? null : LLMRateLimiter.parseRetryAfter(
+                        headers.getFirst("retry-after-ms"), headers.getFirst(HttpHeaders.RETRY_AFTER));
+                permit.throttled(retryAfter);
+            } else {
+                permit.failed();
             }
+            return new LLMProviderException(errorPrefix + e.getMessage(), status, retryAfter);
+        }
+        permit.failed();
+        if (error instanceof ResourceAccessException e) {
+            boolean timedOut = e.getCause() instanceof HttpTimeoutException || e.getCause() instanceof SocketTimeoutException;
+            return new LLMProviderException(errorPrefix + e.getMessage(), timedOut ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY);
+        }
+        if (error instanceof CustomException e) {
+            return e;
+        }
+        return new CustomException(errorPrefix + error.getMessage(), null);
+    }
 
-            throw new CustomException("Unable to parse LLM response", null);
-        } catch (Exception e) {
-            throw new CustomException("Error generating response from LLM: " + e.getMessage(), null);
+    // Upstream outages become BAD_GATEWAY; 4xx keep their own status, so the resilience policy neither retries a
+    // rejected request nor counts it towards opening the circuit
+    private static HttpStatus upstreamStatus(int statusCode) {
+        if (statusCode >= 500) {
+            return HttpStatus.BAD_GATEWAY;
         }
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        return status != null && status.is4xxClientError() ? status : HttpStatus.BAD_REQUEST;
     }
 
-    public Map<String, Object> generateStructuredResponse(String prompt, String responseFormat) {
-        try {
-            // Similar to generateResponse but with function calling
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(openAIConfig.getOpenaiApiKey());
+    // Streams the completion, handing every content delta to onToken as soon as its frame arrives.
+    // Returns the full concatenated response once the stream ends.
+    public String streamResponse(String prompt, Consumer<String> onToken) {
+        return streamResponse(prompt, onToken, false);
+    }
+
+    public String streamResponse(String prompt, Consumer<String> onToken, boolean bypassCache) {
+        // Streamed and blocking completions use the same prompt and settings, so they share cache entries
+        String cacheKey = LLMResponseCache.key("text", openAIConfig.getOpenaiModel(), TEMPERATURE, prompt);
+        if (!bypassCache) {
+            String cached = responseCache.get(cacheKey);
+            if (cached != null) {
+                onToken.accept(cached);
+                return cached;
+            }
+        }
+
+        // Tokens may already have reached the client when a stream breaks, so streams are never retried
+        String content = resiliencePolicy.executeOnce(() -> requestStream(prompt, onToken));
+        responseCache.put(cacheKey, content);
+        return content;
+    }
+
+    private String requestStream(String prompt, Consumer<String> onToken) {
+        return limited(prompt, "streamResponse", "Error streaming response from LLM: ", () -> {
+            byte[] body = createChatRequest(prompt, true).toString().getBytes(StandardCharsets.UTF_8);
+
+            String content = restTemplate.execute(
+                    openAIConfig.getOpenaiApiUrl(),
+                    HttpMethod.POST,
+                    request -> {
+                        request.getHeaders().putAll(createHeaders());
+                        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                        request.getBody().write(body);
+                    },
+                    response -> readStream(response.getBody(), onToken)
+            );
+
+            if (content == null) {
+                throw new CustomException("Unable to parse LLM stream", null);
+            }
+            return content;
+        });
+    }
 
-            // Create request body with function calling
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            requestBody.put("model", openAIConfig.getOpenaiModel());
-            requestBody.put("temperature", 0.7);
+    private String readStream(InputStream body, Consumer<String> onToken) throws IOException {
+        StringBuilder content = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
 
-            ArrayNode messagesArray = objectMapper.createArrayNode();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            // Frames look like "data: {...}"; blank lines separate them and the stream ends with "data: [DONE]"
+            if (!line.startsWith(SSE_DATA_PREFIX)) {
+                continue;
+            }
+            String data = line.substring(SSE_DATA_PREFIX.length()).trim();
+            if (SSE_DONE.equals(data)) {
+                break;
+            }
 
-            ObjectNode systemMessage = objectMapper.createObjectNode();
-            systemMessage.put("role", "system");
-            systemMessage.put("content", "You are Cook.ai, a cooking assistant. Provide responses in the requested JSON format.");
-            messagesArray.add(systemMessage);
+            JsonNode chunk = objectMapper.readTree(data);
+            // Only the last chunk before [DONE] carries usage, and it has no choices
+            llmMetrics.recordUsage(openAIConfig.getOpenaiModel(), chunk.get("usage"));
+            JsonNode choices = chunk.get("choices");
+            if (choices == null || !choices.isArray() || choices.isEmpty()) {
+                continue;
+            }
+            JsonNode delta = choices.get(0).get("delta");
+            if (delta != null && delta.hasNonNull("content")) {
+                String token = delta.get("content").asText();
+                if (!token.isEmpty()) {
+                    content.append(token);
+                    onToken.accept(token);
+                }
+            }
+        }
 
-            ObjectNode userMessage = objectMapper.createObjectNode();
-            userMessage.put("role", "user");
-            userMessage.put("content", prompt);
-            messagesArray.add(userMessage);
+        return content.toString();
+    }
+
+    private HttpHeaders createHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(openAIConfig.getOpenaiApiKey());
+        return headers;
+    }
 
-            requestBody.set("messages", messagesArray);
+    ObjectNode createChatRequest(String prompt, boolean stream) {
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", openAIConfig.getOpenaiModel());
+        requestBody.put("temperature", TEMPERATURE);
+        requestBody.put("max_tokens", MAX_COMPLETION_TOKENS);
+        if (stream) {
+            requestBody.put("stream", true);
+            requestBody.putObject("stream_options").put("include_usage", true);
+        }
+
+        ArrayNode messagesArray = objectMapper.createArrayNode();
 
-            // Add response format
-            ObjectNode responseFormatNode = objectMapper.createObjectNode();
-            responseFormatNode.put("type", "json_object");
-            requestBody.set("response_format", responseFormatNode);
+        ObjectNode systemMessage = objectMapper.createObjectNode();
+        systemMessage.put("role", "system");
+        systemMessage.put("content", SYSTEM_PROMPT);
+        messagesArray.add(systemMessage);
 
-            HttpEntity<String> request = new HttpEntity<>(requestBody.toString(), headers);
+        ObjectNode userMessage = objectMapper.createObjectNode();
+        userMessage.put("role", "user");
+        userMessage.put("content", prompt);
+        messagesArray.add(userMessage);
+
+        requestBody.set("messages", messagesArray);
+        return requestBody;
+    }
+
+    public Map<String, Object> generateStructuredResponse(String prompt, String responseFormat) {
+        return generateStructuredResponse(prompt, responseFormat, false);
+    }
+
+    public Map<String, Object> generateStructuredResponse(String prompt, String responseFormat, boolean bypassCache) {
+        String cacheKey = LLMResponseCache.key("json:" + responseFormat, openAIConfig.getOpenaiModel(), TEMPERATURE, prompt);
+        if (!bypassCache) {
+            Map<String, Object> cached = responseCache.get(cacheKey);
+            if (cached != null) {
+                // Hand out a copy so callers can't mutate the cached value
+                return new HashMap<>(cached);
+            }
+        }
+
+        Map<String, Object> content = requestCoalescer.execute(cacheKey, () -> {
+            Map<String, Object> fresh = resiliencePolicy.execute(() -> requestStructuredResponse(prompt));
+            responseCache.put(cacheKey, new HashMap<>(fresh));
+            return fresh;
+        });
+        // Waiters share the leader's map, so everyone gets their own copy
+        return new HashMap<>(content);
+    }
+
+    private Map<String, Object> requestStructuredResponse(String prompt) {
+        return limited(prompt, "generateStructuredResponse", "Error generating structured response from LLM: ", () -> {
+            HttpEntity<String> request = new HttpEntity<>(createStructuredRequest(prompt).toString(), createHeaders());
 
             ResponseEntity<String> response = restTemplate.postForEntity(
                     openAIConfig.getOpenaiApiUrl(),
@@ -123,24 +322,185 @@ public class LLMHelper {
             );
 
             // Parse the response to get the JSON content
-            JsonNode responseJson = objectMapper.readTree(response.getBody());
-            JsonNode choices = responseJson.get("choices");
+            return parseStructuredContent(extractContent(response.getBody()));
+        });
+    }
+
+    // Non-blocking counterparts: the request goes out on the shared HttpClient and no thread waits for the reply
+
+    public CompletableFuture<String> generateResponseAsync(String prompt) {
+        return generateResponseAsync(prompt, false);
+    }
+
+    public CompletableFuture<String> generateResponseAsync(String prompt, boolean bypassCache) {
+        String cacheKey = LLMResponseCache.key("text", openAIConfig.getOpenaiModel(), TEMPERATURE, prompt);
+        if (!bypassCache) {
+            String cached = responseCache.get(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        return requestCoalescer.executeAsync(cacheKey, () -> {
+            CompletableFuture<String> response = resiliencePolicy.executeAsync(() -> sendAsync(prompt, "generateResponseAsync", createChatRequest(prompt, false)));
+            return Futures.propagateCancel(response
+                    .thenApply(this::extractContent)
+                    .whenComplete((content, error) -> {
+                        if (error == null) {
+                            responseCache.put(cacheKey, content);
+                        }
+                    }), response);
+        });
+    }
+
+    public CompletableFuture<Map<String, Object>> generateStructuredResponseAsync(String prompt, String responseFormat) {
+        return generateStructuredResponseAsync(prompt, responseFormat, false);
+    }
+
+    public CompletableFuture<Map<String, Object>> generateStructuredResponseAsync(String prompt, String responseFormat, boolean bypassCache) {
+        String cacheKey = LLMResponseCache.key("json:" + responseFormat, openAIConfig.getOpenaiModel(), TEMPERATURE, prompt);
+        if (!bypassCache) {
+            Map<String, Object> cached = responseCache.get(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(new HashMap<>(cached));
+            }
+        }
+
+        CompletableFuture<Map<String, Object>> content = requestCoalescer.executeAsync(cacheKey, () -> {
+            CompletableFuture<String> response = resiliencePolicy.executeAsync(() -> sendAsync(prompt, "generateStructuredResponseAsync", createStructuredRequest(prompt)));
+            return Futures.propagateCancel(response
+                    .thenApply(body -> parseStructuredContent(extractContent(body)))
+                    .whenComplete((fresh, error) -> {
+                        if (error == null) {
+                            responseCache.put(cacheKey, new HashMap<>(fresh));
+                        }
+                    }), response);
+        });
+        return Futures.propagateCancel(content.thenApply(HashMap::new), content);
+    }
 
-            if (choices != null && choices.isArray() && choices.size() > 0) {
-                JsonNode firstChoice = choices.get(0);
-                JsonNode message = firstChoice.get("message");
+    // Reactive variants are lazy: nothing is sent until the Mono is subscribed
+    public Mono<String> generateResponseMono(String prompt, boolean bypassCache) {
+        return Mono.fromFuture(() -> generateResponseAsync(prompt, bypassCache));
+    }
+
+    public Mono<Map<String, Object>> generateStructuredResponseMono(String prompt, String responseFormat, boolean bypassCache) {
+        return Mono.fromFuture(() -> generateStructuredResponseAsync(prompt, responseFormat, bypassCache));
+    }
+
+    private CompletableFuture<String> sendAsync(String prompt, String method, ObjectNode requestBody) {
+        int estimatedTokens = LLMRateLimiter.estimateTokens(prompt, MAX_COMPLETION_TOKENS);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        // Waiting for a permit blocks, so it happens on a virtual thread rather than the caller's
+        CompletableFuture.supplyAsync(() -> rateLimiter.acquire(estimatedTokens), chatExecutor)
+                .whenComplete((permit, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(Futures.unwrap(error));
+                    } else if (result.isDone()) {
+                        // The caller gave up while this call was queued
+                        permit.failed();
+                    } else {
+                        Futures.forward(sendAsync(requestBody, method, permit), result);
+                    }
+                });
+        return result;
+    }
+
+    private CompletableFuture<String> sendAsync(ObjectNode requestBody, String method, LLMRateLimiter.Permit permit) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(openAIConfig.getOpenaiApiUrl()))
+                .timeout(Duration.ofMillis(openAIConfig.getReadTimeoutMs()))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + openAIConfig.getOpenaiApiKey())
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
+                .build();
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        CompletableFuture<String> call = exchange
+                .thenApply(response -> {
+                    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                        HttpStatus status = upstreamStatus(response.statusCode());
+                        Duration retryAfter = null;
+                        if (status == HttpStatus.TOO_MANY_REQUESTS) {
+                            retryAfter = LLMRateLimiter.parseRetryAfter(
+                                    response.headers().firstValue("retry-after-ms").orElse(null),
+                                    response.headers().firstValue(HttpHeaders.RETRY_AFTER).orElse(null));
+                            permit.throttled(retryAfter);
+                        }
+                        throw new LLMProviderException("Error generating response from LLM: HTTP " + response.statusCode(), status, retryAfter);
+                    }
+                    return response.body();
+                })
+                .orTimeout(openAIConfig.getTotalTimeoutMs(), TimeUnit.MILLISECONDS);
+        call.whenComplete((body, error) -> {
+            // No-op when the permit was already released as throttled
+            if (error == null) {
+                permit.succeeded();
+            } else {
+                permit.failed();
+            }
+            llmMetrics.recordCall(openAIConfig.getOpenaiModel(), method, System.nanoTime() - start, error);
+        });
+        // Cancelling the call aborts the exchange, so an abandoned request stops holding its connection
+        return Futures.propagateCancel(call, exchange);
+    }
+
+    // Also records the token usage reported with the completion
+    String extractContent(String responseBody) {
+        try {
+            JsonNode root = objectMapper.readTree(responseBody);
+            llmMetrics.recordUsage(openAIConfig.getOpenaiModel(), root.get("usage"));
+
+            JsonNode choices = root.get("choices");
+
+            if (choices != null && choices.isArray() && !choices.isEmpty()) {
+                JsonNode message = choices.get(0).get("message");
                 if (message != null) {
-                    String content = message.get("content").asText();
-                    return objectMapper.readValue(content, HashMap.class);
+                    return message.get("content").asText();
                 }
             }
+        } catch (JsonProcessingException e) {
+            throw new CustomException("Unable to parse LLM response: " + e.getOriginalMessage(), null);
+        }
+
+        throw new CustomException("Unable to parse LLM response", null);
+    }
 
-            throw new CustomException("Unable to parse LLM structured response", null);
-        } catch (Exception e) {
-            throw new CustomException("Error generating structured response from LLM: " + e.getMessage(), null);
+    @SuppressWarnings("unchecked")
+    Map<String, Object> parseStructuredContent(String content) {
+        try {
+            return objectMapper.readValue(content, HashMap.class);
+        } catch (JsonProcessingException e) {
+            throw new CustomException("Unable to parse LLM structured response: " + e.getOriginalMessage(), null);
         }
     }
 
+    ObjectNode createStructuredRequest(String prompt) {
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", openAIConfig.getOpenaiModel());
+        requestBody.put("temperature", TEMPERATURE);
+
+        ArrayNode messagesArray = objectMapper.createArrayNode();
+
+        ObjectNode systemMessage = objectMapper.createObjectNode();
+        systemMessage.put("role", "system");
+        systemMessage.put("content", STRUCTURED_SYSTEM_PROMPT);
+        messagesArray.add(systemMessage);
+
+        ObjectNode userMessage = objectMapper.createObjectNode();
+        userMessage.put("role", "user");
+        userMessage.put("content", prompt);
+        messagesArray.add(userMessage);
+
+        requestBody.set("messages", messagesArray);
+
+        // Add response format
+        ObjectNode responseFormatNode = objectMapper.createObjectNode();
+        responseFormatNode.put("type", "json_object");
+        requestBody.set("response_format", responseFormatNode);
+        return requestBody;
+    }
+
     public String generateRecipeFromIngredients(String ingredients, String restrictions) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Create a recipe using these ingredients: ").append(ingredients).append(". ");
@@ -0,0 +1,80 @@
+package ai.llm.cook.utils;
+
+import ai.llm.cook.exception.CustomException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Upstream LLM call metrics: latency per model and method, token usage as reported by OpenAI, and errors.
+// Latency is measured per upstream attempt, after the rate limiter let it through.
+@Component
+public class LLMMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public LLMMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordCall(String model, String method, long nanos, Throwable error) {
+        Timer.builder("llm.requests")
+                .description("Latency of upstream LLM calls")
+                .tag("model", model)
+                .tag("method", method)
+                .tag("outcome", error == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (error != null) {
+            Counter.builder("llm.errors")
+                    .description("Failed upstream LLM calls by cause")
+                    .tag("model", model)
+                    .tag("method", method)
+                    .tag("cause", cause(error))
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    // Reads OpenAI's "usage" object, present on every completion and on the last chunk of a stream that asked for it
+    public void recordUsage(String model, JsonNode usage) {
+        if (usage == null || !usage.isObject()) {
+            return;
+        }
+        tokens(model, "prompt", usage.path("prompt_tokens").asLong());
+        tokens(model, "completion", usage.path("completion_tokens").asLong());
+    }
+
+    private void tokens(String model, String type, long count) {
+        if (count > 0) {
+            Counter.builder("llm.tokens")
+                    .description("Tokens billed by the LLM provider")
+                    .baseUnit("tokens")
+                    .tag("model", model)
+                    .tag("type", type)
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+
+    private static String cause(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof CustomException customException) {
+            return String.valueOf(customException.getStatus().value());
+        }
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        return error instanceof IOException ? "io" : "other";
+    }
+}
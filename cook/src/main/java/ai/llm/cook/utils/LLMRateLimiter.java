@@ -0,0 +1,237 @@
+package ai.llm.cook.utils;
+
+import ai.llm.cook.exception.CustomException;
+import ai.llm.cook.prompt.TokenEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Client-side limiter for every outbound OpenAI call. It enforces requests-per-minute and tokens-per-minute
+// budgets with token buckets, and queues callers first-come-first-served for at most maxWait. It also adapts
+// how many calls may be in flight: additive increase while latency stays under target, multiplicative
+// decrease on slow calls and 429s, and a full pause for the Retry-After interval.
+@Component
+public class LLMRateLimiter {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+    private final double minConcurrency;
+    private final double maxConcurrency;
+    private final long targetLatencyNanos;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+
+    // Guarded by lock
+    private double requestBudget;
+    private double tokenBudget;
+    private long lastRefill;
+    private double concurrencyLimit;
+    private int inFlight;
+    private long pausedUntil;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    public LLMRateLimiter(@Value("${llm.limiter.requests-per-minute:500}") double requestsPerMinute,
+                          @Value("${llm.limiter.tokens-per-minute:30000}") double tokensPerMinute,
+                          @Value("${llm.limiter.initial-concurrency:8}") double initialConcurrency,
+                          @Value("${llm.limiter.min-concurrency:1}") double minConcurrency,
+                          @Value("${llm.limiter.max-concurrency:64}") double maxConcurrency,
+                          @Value("${llm.limiter.target-latency-ms:20000}") long targetLatencyMs,
+                          @Value("${llm.limiter.max-wait-ms:10000}") long maxWaitMs) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.requestBudget = requestsPerMinute;
+        this.tokenBudget = tokensPerMinute;
+        this.concurrencyLimit = Math.max(minConcurrency, Math.min(initialConcurrency, maxConcurrency));
+        this.lastRefill = System.nanoTime();
+    }
+
+    // Blocks until the caller is at the head of the queue and every budget allows the call
+    public Permit acquire(int estimatedTokens) {
+        // A request bigger than the whole minute budget could never run, so it only has to wait for a full bucket
+        double tokens = Math.min(estimatedTokens, tokensPerMinute);
+        Object ticket = new Object();
+        long deadline = System.nanoTime() + maxWaitNanos;
+
+        lock.lock();
+        try {
+            queue.addLast(ticket);
+            while (true) {
+                long now = System.nanoTime();
+                refill(now);
+
+                long waitNanos = 0;
+                if (queue.peekFirst() == ticket) {
+                    waitNanos = nanosUntilAvailable(now, tokens);
+                    if (waitNanos == 0) {
+                        queue.removeFirst();
+                        requestBudget -= 1;
+                        tokenBudget -= tokens;
+                        inFlight++;
+                        acquired.incrementAndGet();
+                        // Let the next caller in line re-check its own budget
+                        changed.signalAll();
+                        return new Permit(now);
+                    }
+                }
+
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    queue.remove(ticket);
+                    changed.signalAll();
+                    rejected.incrementAndGet();
+                    throw new CustomException("Too many requests to the LLM provider, please try again shortly", HttpStatus.TOO_MANY_REQUESTS);
+                }
+                // Budgets refill with time, so wake up when they should suffice even if nobody signals
+                changed.awaitNanos(waitNanos > 0 ? Math.min(waitNanos, remaining) : remaining);
+            }
+        } catch (InterruptedException e) {
+            queue.remove(ticket);
+            changed.signalAll();
+            Thread.currentThread().interrupt();
+            throw new CustomException("Interrupted while waiting for the LLM rate limiter", null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static int estimateTokens(String prompt, int maxCompletionTokens) {
+        return TokenEstimator.count(prompt) + maxCompletionTokens;
+    }
+
+    // Accepts both OpenAI's retry-after-ms and the standard Retry-After header in seconds
+    public static Duration parseRetryAfter(String retryAfterMs, String retryAfterSeconds) {
+        try {
+            if (retryAfterMs != null) {
+                return Duration.ofMillis((long) Double.parseDouble(retryAfterMs.trim()));
+            }
+            if (retryAfterSeconds != null) {
+                return Duration.ofMillis((long) (Double.parseDouble(retryAfterSeconds.trim()) * 1000));
+            }
+        } catch (NumberFormatException e) {
+            // HTTP-date form or garbage; fall back to the default pause
+        }
+        return DEFAULT_RETRY_AFTER;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            stats.put("concurrencyLimit", concurrencyLimit);
+            stats.put("inFlight", inFlight);
+            stats.put("queued", queue.size());
+            stats.put("requestBudget", requestBudget);
+            stats.put("tokenBudget", tokenBudget);
+            stats.put("pausedForMs", Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntil - System.nanoTime())));
+        } finally {
+            lock.unlock();
+        }
+        stats.put("acquired", acquired.get());
+        stats.put("rejected", rejected.get());
+        stats.put("throttled", throttled.get());
+        return stats;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed <= 0) {
+            return;
+        }
+        requestBudget = Math.min(requestsPerMinute, requestBudget + requestsPerMinute * elapsed / NANOS_PER_MINUTE);
+        tokenBudget = Math.min(tokensPerMinute, tokenBudget + tokensPerMinute * elapsed / NANOS_PER_MINUTE);
+        lastRefill = now;
+    }
+
+    // 0 when a call could start right now, otherwise a hint for how long to sleep
+    private long nanosUntilAvailable(long now, double tokens) {
+        if (pausedUntil - now > 0) {
+            return pausedUntil - now;
+        }
+        if (inFlight >= (int) concurrencyLimit) {
+            // Only a release frees a slot, and releases signal
+            return Long.MAX_VALUE;
+        }
+        long wait = 0;
+        if (requestBudget < 1) {
+            wait = Math.max(wait, (long) ((1 - requestBudget) * NANOS_PER_MINUTE / requestsPerMinute) + 1);
+        }
+        if (tokenBudget < tokens) {
+            wait = Math.max(wait, (long) ((tokens - tokenBudget) * NANOS_PER_MINUTE / tokensPerMinute) + 1);
+        }
+        return wait;
+    }
+
+    private void release(long startedAt, boolean success, Duration retryAfter) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            inFlight--;
+            if (retryAfter != null) {
+                throttled.incrementAndGet();
+                concurrencyLimit = Math.max(minConcurrency, concurrencyLimit / 2);
+                pausedUntil = Math.max(pausedUntil, now + retryAfter.toNanos());
+            } else if (success && now - startedAt <= targetLatencyNanos) {
+                concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+            } else if (success) {
+                concurrencyLimit = Math.max(minConcurrency, concurrencyLimit * 0.9);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must be released exactly once through one of the outcome methods
+    public final class Permit {
+
+        private final long startedAt;
+        private boolean released;
+
+        private Permit(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        public void succeeded() {
+            releaseOnce(true, null);
+        }
+
+        // Errors other than 429 don't say anything about provider capacity, so they leave the limit alone
+        public void failed() {
+            releaseOnce(false, null);
+        }
+
+        public void throttled(Duration retryAfter) {
+            releaseOnce(false, retryAfter != null ? retryAfter : DEFAULT_RETRY_AFTER);
+        }
+
+        private synchronized void releaseOnce(boolean success, Duration retryAfter) {
+            if (!released) {
+                released = true;
+                release(startedAt, success, retryAfter);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ai.llm.cook.utils;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Single-flight: while a call for a key is in flight, identical calls wait for its result instead of going upstream.
+// Blocking and non-blocking callers share the same in-flight table, and a failure reaches every waiter.
+// An async call is cancelled once every caller waiting for it has cancelled or timed out its own future.
+@Component
+public class LLMRequestCoalescer {
+
+    private static final class Flight {
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        // Callers still interested in the result; blocking callers can't give up, so they never leave
+        private final AtomicInteger callers = new AtomicInteger();
+        // Set for async calls only; a blocking leader runs the call on its own thread
+        private volatile CompletableFuture<?> upstream;
+
+        // Each caller gets its own copy, so one caller cancelling its future doesn't cancel it for everybody else
+        private CompletableFuture<Object> join() {
+            callers.incrementAndGet();
+            CompletableFuture<Object> copy = result.copy();
+            copy.whenComplete((value, error) -> {
+                if (!result.isDone() && callers.decrementAndGet() == 0) {
+                    cancelUpstream();
+                }
+            });
+            return copy;
+        }
+
+        private void cancelUpstream() {
+            CompletableFuture<?> call = upstream;
+            if (call != null) {
+                call.cancel(true);
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger peakWaiting = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            existing.callers.incrementAndGet();
+            return (T) await(existing.result);
+        }
+
+        leaders.incrementAndGet();
+        try {
+            T result = call.get();
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> call) {
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            trackWaiter();
+            CompletableFuture<Object> copy = existing.join();
+            copy.whenComplete((result, error) -> waiting.decrementAndGet());
+            return (CompletableFuture<T>) copy;
+        }
+
+        leaders.incrementAndGet();
+        CompletableFuture<Object> copy = flight.join();
+        try {
+            CompletableFuture<T> upstream = call.get();
+            flight.upstream = upstream;
+            upstream.whenComplete((result, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else {
+                    flight.result.complete(result);
+                }
+            });
+            // The leader may have given up before the call was even handed over
+            if (copy.isDone() && !flight.result.isDone() && flight.callers.get() == 0) {
+                upstream.cancel(true);
+            }
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+        }
+        return (CompletableFuture<T>) copy;
+    }
+
+    private Object await(CompletableFuture<Object> flight) {
+        coalesced.incrementAndGet();
+        trackWaiter();
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Rethrow what the leader saw so waiters fail exactly like it did
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void trackWaiter() {
+        int nowWaiting = waiting.incrementAndGet();
+        peakWaiting.accumulateAndGet(nowWaiting, Math::max);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("leaders", leaders.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("waiting", waiting.get());
+        stats.put("peakWaiting", peakWaiting.get());
+        return stats;
+    }
+}
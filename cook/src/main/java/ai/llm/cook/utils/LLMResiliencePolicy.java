@@ -0,0 +1,398 @@
+package ai.llm.cook.utils;
+
+import ai.llm.cook.exception.CustomException;
+import ai.llm.cook.exception.LLMProviderException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Wraps upstream LLM calls with retries (exponential backoff with full jitter, honouring Retry-After),
+// a consecutive-failure circuit breaker and, optionally, a hedged second attempt once the first one
+// has taken longer than the recent p95 latency.
+@Component
+public class LLMResiliencePolicy {
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int LATENCY_WINDOW = 256;
+
+    private final ExecutorService chatExecutor;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMs;
+    private final int hedgeMinSamples;
+
+    // Circuit breaker state, guarded by this
+    private CircuitState circuitState = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    // Ring buffer of recent successful attempt latencies, guarded by latencies
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong circuitOpens = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+
+    public LLMResiliencePolicy(@Qualifier("chatExecutor") ExecutorService chatExecutor,
+                               @Value("${llm.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${llm.retry.base-delay-ms:250}") long baseDelayMs,
+                               @Value("${llm.retry.max-delay-ms:8000}") long maxDelayMs,
+                               @Value("${llm.circuit.failure-threshold:5}") int failureThreshold,
+                               @Value("${llm.circuit.open-ms:30000}") long openMs,
+                               @Value("${llm.hedge.enabled:false}") boolean hedgeEnabled,
+                               @Value("${llm.hedge.min-delay-ms:2000}") long hedgeMinDelayMs,
+                               @Value("${llm.hedge.min-samples:20}") int hedgeMinSamples) {
+        this.chatExecutor = chatExecutor;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+        this.hedgeMinSamples = hedgeMinSamples;
+    }
+
+    // Blocking call with retries and hedging. Only use for calls that are safe to repeat.
+    public <T> T execute(Supplier<T> call) {
+        return retried(() -> hedged(call));
+    }
+
+    // Retries and circuit breaker, but no hedging. For calls to other endpoints of the provider, whose latency
+    // must not shape the p95 that completions are hedged on.
+    public <T> T executeWithoutHedging(Supplier<T> call) {
+        return retried(() -> guarded(call));
+    }
+
+    // Circuit breaker only, for calls that can't be repeated once they started producing output (streams)
+    public <T> T executeOnce(Supplier<T> call) {
+        return guarded(() -> timed(call));
+    }
+
+    // Cancelling or timing out the returned future cancels the attempt in flight and stops further retries
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executeAsync(call, 1, result);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("circuitState", circuitState.name());
+            stats.put("consecutiveFailures", consecutiveFailures);
+        }
+        stats.put("circuitOpens", circuitOpens.get());
+        stats.put("shortCircuited", shortCircuited.get());
+        stats.put("retries", retries.get());
+        stats.put("hedgeEnabled", hedgeEnabled);
+        stats.put("hedges", hedges.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        stats.put("p95LatencyMs", p95LatencyMs());
+        return stats;
+    }
+
+    private <T> T retried(Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                long delayMs = retryDelayMs(e, attempt);
+                if (delayMs < 0) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                sleep(delayMs);
+            }
+        }
+    }
+
+    private <T> T guarded(Supplier<T> call) {
+        acquireCircuit();
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            onFailure(e);
+            throw e;
+        }
+    }
+
+    private <T> void executeAsync(Supplier<CompletableFuture<T>> call, int attempt, CompletableFuture<T> result) {
+        CompletableFuture<T> current = hedgedAsync(call);
+        Futures.propagateCancel(result, current);
+        current.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            long delayMs = retryDelayMs(error, attempt);
+            if (delayMs < 0 || result.isDone()) {
+                result.completeExceptionally(unwrap(error));
+                return;
+            }
+            retries.incrementAndGet();
+            // Waiting for the next attempt doesn't hold a thread either
+            CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, chatExecutor).execute(() -> {
+                // Nobody is waiting for the outcome any more
+                if (!result.isDone()) {
+                    executeAsync(call, attempt + 1, result);
+                }
+            });
+        });
+    }
+
+    private <T> T hedged(Supplier<T> call) {
+        long hedgeDelayMs = hedgeDelayMs();
+        if (hedgeDelayMs < 0) {
+            return executeOnce(call);
+        }
+
+        Race<T> race = new Race<>();
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(() -> executeOnce(call), chatExecutor);
+        race.enter(primary, false);
+        try {
+            return race.result.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!race.result.isDone()) {
+                hedges.incrementAndGet();
+                race.enter(CompletableFuture.supplyAsync(() -> executeOnce(call), chatExecutor), true);
+            }
+            return join(race.result);
+        } catch (ExecutionException e) {
+            throw asRuntime(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("Interrupted while waiting for the LLM", null);
+        }
+    }
+
+    private <T> CompletableFuture<T> hedgedAsync(Supplier<CompletableFuture<T>> call) {
+        long hedgeDelayMs = hedgeDelayMs();
+        if (hedgeDelayMs < 0) {
+            return attemptAsync(call);
+        }
+
+        Race<T> race = new Race<>();
+        race.enter(attemptAsync(call), false);
+        CompletableFuture.runAsync(() -> {
+            if (!race.result.isDone()) {
+                hedges.incrementAndGet();
+                race.enter(attemptAsync(call), true);
+            }
+        }, CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS, chatExecutor));
+        return race.result;
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(Supplier<CompletableFuture<T>> call) {
+        try {
+            acquireCircuit();
+        } catch (CustomException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        // The attempt itself goes back to the caller, so cancelling it reaches the upstream call
+        CompletableFuture<T> attempt = call.get();
+        attempt.whenComplete((result, error) -> {
+            if (error == null) {
+                recordLatency(System.nanoTime() - start);
+                onSuccess();
+            } else {
+                onFailure(error);
+            }
+        });
+        return attempt;
+    }
+
+    private <T> T timed(Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        recordLatency(System.nanoTime() - start);
+        return result;
+    }
+
+    // -1 when the error must be surfaced as is
+    private long retryDelayMs(Throwable error, int attempt) {
+        Throwable cause = unwrap(error);
+        if (attempt >= maxAttempts || !isRetryable(cause)) {
+            return -1;
+        }
+        long cap = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        long delayMs = ThreadLocalRandom.current().nextLong(cap + 1);
+
+        Duration retryAfter = cause instanceof LLMProviderException providerException ? providerException.getRetryAfter() : null;
+        if (retryAfter != null) {
+            // A pause longer than we are willing to back off would outlast the caller anyway
+            if (retryAfter.toMillis() > maxDelayMs) {
+                return -1;
+            }
+            delayMs = Math.max(delayMs, retryAfter.toMillis());
+        }
+        return delayMs;
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof LLMProviderException providerException) {
+            HttpStatus status = providerException.getStatus();
+            return status == HttpStatus.TOO_MANY_REQUESTS || status.is5xxServerError();
+        }
+        return cause instanceof TimeoutException || cause instanceof IOException;
+    }
+
+    // Rate limiting means the provider is up, and our own errors say nothing about it
+    private static boolean isOutage(Throwable cause) {
+        if (cause instanceof LLMProviderException providerException) {
+            return providerException.getStatus().is5xxServerError();
+        }
+        return cause instanceof TimeoutException || cause instanceof IOException;
+    }
+
+    private synchronized void acquireCircuit() {
+        if (circuitState == CircuitState.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            circuitState = CircuitState.HALF_OPEN;
+        }
+        if (circuitState == CircuitState.CLOSED) {
+            return;
+        }
+        // While half open a single trial call decides whether the provider is back
+        if (circuitState == CircuitState.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return;
+        }
+        shortCircuited.incrementAndGet();
+        throw new CustomException("The LLM provider is currently unavailable, please try again later", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        circuitState = CircuitState.CLOSED;
+    }
+
+    private synchronized void onFailure(Throwable error) {
+        boolean trial = circuitState == CircuitState.HALF_OPEN && trialInFlight;
+        trialInFlight = false;
+        if (!isOutage(unwrap(error))) {
+            return;
+        }
+        consecutiveFailures++;
+        if (trial || (circuitState == CircuitState.CLOSED && consecutiveFailures >= failureThreshold)) {
+            circuitState = CircuitState.OPEN;
+            openedAt = System.nanoTime();
+            circuitOpens.incrementAndGet();
+        }
+    }
+
+    // -1 when hedging is off or there aren't enough samples for a meaningful p95 yet
+    private long hedgeDelayMs() {
+        if (!hedgeEnabled) {
+            return -1;
+        }
+        synchronized (latencies) {
+            if (latencyCount < hedgeMinSamples) {
+                return -1;
+            }
+        }
+        return Math.max(hedgeMinDelayMs, p95LatencyMs());
+    }
+
+    private void recordLatency(long nanos) {
+        synchronized (latencies) {
+            latencies[latencyNext] = nanos;
+            latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+        }
+    }
+
+    private long p95LatencyMs() {
+        long[] sorted;
+        synchronized (latencies) {
+            if (latencyCount == 0) {
+                return 0;
+            }
+            sorted = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(sorted);
+        return TimeUnit.NANOSECONDS.toMillis(sorted[(int) Math.ceil(sorted.length * 0.95) - 1]);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static RuntimeException asRuntime(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw asRuntime(e);
+        }
+    }
+
+    private static void sleep(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("Interrupted while waiting to retry the LLM call", null);
+        }
+    }
+
+    // First successful attempt wins; the race only fails once every attempt that entered it has failed.
+    // Blocking attempts that lose are left to finish on their own and their results are dropped. Async attempts
+    // still running when the race is decided, or abandoned by its caller, are cancelled.
+    private final class Race<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private void enter(CompletableFuture<T> attempt, boolean hedge) {
+            pending.incrementAndGet();
+            Futures.propagateCancel(result, attempt);
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (result.complete(value) && hedge) {
+                        hedgeWins.incrementAndGet();
+                    }
+                } else if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(unwrap(error));
+                }
+            });
+        }
+    }
+}
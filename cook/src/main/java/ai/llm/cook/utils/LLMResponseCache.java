@@ -0,0 +1,118 @@
+package ai.llm.cook.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+@Component
+public class LLMResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // Access-ordered, so the eldest entry is always the least recently used one
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public LLMResponseCache(@Value("${llm.cache.enabled:true}") boolean enabled,
+                            @Value("${llm.cache.max-size:1000}") int maxSize,
+                            @Value("${llm.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > LLMResponseCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Two prompts that differ only in case or whitespace share a key; model, temperature and kind keep
+    // otherwise identical prompts with different generation settings apart
+    public static String key(String kind, String model, double temperature, String prompt) {
+        String normalized = prompt == null ? "" : WHITESPACE.matcher(prompt.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return kind + '|' + model + '|' + temperature + '|' + normalized;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return (T) entry.value;
+        }
+    }
+
+    public void put(String key, Object value) {
+        if (!enabled || value == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
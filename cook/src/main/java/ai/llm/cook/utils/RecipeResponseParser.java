@@ -0,0 +1,165 @@
+package ai.llm.cook.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Parses the "TITLE: ... CUISINE: ..." layout requested by the recipe generation prompt.
+// One pass over the text finds the first occurrence of every marker; each section then runs up to the
+// next marker found, and single-line fields stop at the end of their line. No regex, and the only
+// strings allocated are the extracted values.
+public final class RecipeResponseParser {
+
+    public record ParsedRecipe(String title, String description, List<String> ingredients, List<String> instructions,
+                               Integer cookingTime, String difficulty, String cuisine) {
+    }
+
+    private enum Section {
+        TITLE("TITLE:"),
+        DESCRIPTION("DESCRIPTION:"),
+        INGREDIENTS("INGREDIENTS:"),
+        INSTRUCTIONS("INSTRUCTIONS:"),
+        COOKING_TIME("COOKING_TIME:"),
+        DIFFICULTY("DIFFICULTY:"),
+        CUISINE("CUISINE:");
+
+        private final String marker;
+
+        Section(String marker) {
+            this.marker = marker;
+        }
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+
+    private RecipeResponseParser() {
+    }
+
+    public static ParsedRecipe parse(String text) {
+        if (text == null) {
+            return new ParsedRecipe(null, null, null, null, null, null, null);
+        }
+
+        // Start of each marker and of its value, -1 when the marker never appears
+        int[] markerStart = new int[SECTIONS.length];
+        int[] valueStart = new int[SECTIONS.length];
+        Arrays.fill(markerStart, -1);
+        int found = 0;
+
+        int length = text.length();
+        for (int i = 0; i < length && found < SECTIONS.length; i++) {
+            char c = text.charAt(i);
+            // Every marker starts with one of these letters, which rules out almost every position cheaply
+            if (c != 'T' && c != 'D' && c != 'I' && c != 'C') {
+                continue;
+            }
+            for (Section section : SECTIONS) {
+                int ordinal = section.ordinal();
+                if (markerStart[ordinal] < 0 && text.startsWith(section.marker, i)) {
+                    markerStart[ordinal] = i;
+                    valueStart[ordinal] = i + section.marker.length();
+                    found++;
+                    i = valueStart[ordinal] - 1;
+                    break;
+                }
+            }
+        }
+
+        return new ParsedRecipe(
+                line(text, Section.TITLE, markerStart, valueStart),
+                block(text, Section.DESCRIPTION, markerStart, valueStart),
+                lines(text, Section.INGREDIENTS, markerStart, valueStart),
+                lines(text, Section.INSTRUCTIONS, markerStart, valueStart),
+                number(text, Section.COOKING_TIME, markerStart, valueStart),
+                line(text, Section.DIFFICULTY, markerStart, valueStart),
+                line(text, Section.CUISINE, markerStart, valueStart));
+    }
+
+    // Where the section's value ends: at the closest marker that starts after it, or at the end of the text
+    private static int sectionEnd(String text, int from, int[] markerStart) {
+        int end = text.length();
+        for (int start : markerStart) {
+            if (start >= from && start < end) {
+                end = start;
+            }
+        }
+        return end;
+    }
+
+    private static String line(String text, Section section, int[] markerStart, int[] valueStart) {
+        int from = valueStart[section.ordinal()];
+        if (markerStart[section.ordinal()] < 0) {
+            return null;
+        }
+        int end = sectionEnd(text, from, markerStart);
+        int newline = text.indexOf('\n', from);
+        if (newline >= 0 && newline < end) {
+            end = newline;
+        }
+        return trimmed(text, from, end);
+    }
+
+    private static String block(String text, Section section, int[] markerStart, int[] valueStart) {
+        int from = valueStart[section.ordinal()];
+        if (markerStart[section.ordinal()] < 0) {
+            return null;
+        }
+        return trimmed(text, from, sectionEnd(text, from, markerStart));
+    }
+
+    private static List<String> lines(String text, Section section, int[] markerStart, int[] valueStart) {
+        int from = valueStart[section.ordinal()];
+        if (markerStart[section.ordinal()] < 0) {
+            return null;
+        }
+        int end = sectionEnd(text, from, markerStart);
+
+        List<String> result = new ArrayList<>();
+        int lineStart = from;
+        while (lineStart < end) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0 || lineEnd > end) {
+                lineEnd = end;
+            }
+            String line = trimmed(text, lineStart, lineEnd);
+            if (!line.isEmpty()) {
+                result.add(line);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return result;
+    }
+
+    // First run of digits on the line, so "30-45 minutes" reads as 30; 0 when there is none
+    private static Integer number(String text, Section section, int[] markerStart, int[] valueStart) {
+        String line = line(text, section, markerStart, valueStart);
+        if (line == null) {
+            return null;
+        }
+        int value = 0;
+        boolean inDigits = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (value > (Integer.MAX_VALUE - (c - '0')) / 10) {
+                    return 0;
+                }
+                value = value * 10 + (c - '0');
+                inDigits = true;
+            } else if (inDigits) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    private static String trimmed(String text, int from, int to) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+            to--;
+        }
+        return text.substring(from, to);
+    }
+}
@@ -34,6 +34,13 @@ public class ValidationUtil {
             throw new CustomException("Recipe must have at least one ingredient", HttpStatus.BAD_REQUEST);
         }
 
+        // A JSON body can hold null elements or nameless ingredients, which the ingredients table doesn't accept
+        for (RecipeRequestDTO.IngredientDTO ingredient : recipe.getIngredients()) {
+            if (ingredient == null || ingredient.getName() == null || ingredient.getName().trim().isEmpty()) {
+                throw new CustomException("Every ingredient needs a name", HttpStatus.BAD_REQUEST);
+            }
+        }
+
         // Check if preparation time is valid
         if (recipe.getPreparationTime() != null && recipe.getPreparationTime() < 0) {
             throw new CustomException("Preparation time cannot be negative", HttpStatus.BAD_REQUEST);
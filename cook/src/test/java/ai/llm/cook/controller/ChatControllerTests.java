@@ -0,0 +1,137 @@
+package ai.llm.cook.controller;
+
+import ai.llm.cook.config.OpenAIConfig;
+import ai.llm.cook.dto.ChatRequestDTO;
+import ai.llm.cook.dto.ChatResponseDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.exception.CustomException;
+import ai.llm.cook.service.ChatService;
+import ai.llm.cook.service.RecipeService;
+import ai.llm.cook.utils.LLMHelper;
+import ai.llm.cook.utils.LLMRateLimiter;
+import ai.llm.cook.utils.LLMRequestCoalescer;
+import ai.llm.cook.utils.LLMResiliencePolicy;
+import ai.llm.cook.utils.LLMResponseCache;
+import ai.llm.cook.utils.ValidationUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Drives processChat -> processQueryAsync -> generateResponseAsync with only the OpenAI call and the database stubbed
+class ChatControllerTests {
+
+    private static final long LLM_TIMEOUT_MS = 200;
+
+    private final LLMHelper llmHelper = mock(LLMHelper.class);
+    private final RecipeService recipeService = mock(RecipeService.class);
+    private ExecutorService chatExecutor;
+    private ChatController controller;
+
+    @BeforeEach
+    void setUp() {
+        chatExecutor = Executors.newFixedThreadPool(4);
+        ChatService chatService = new ChatService(llmHelper, recipeService, mock(OpenAIConfig.class), chatExecutor);
+        ReflectionTestUtils.setField(chatService, "llmTimeoutMs", LLM_TIMEOUT_MS);
+        ReflectionTestUtils.setField(chatService, "recipesTimeoutMs", 1500L);
+        ReflectionTestUtils.setField(chatService, "semanticTimeoutMs", 500L);
+        ReflectionTestUtils.setField(chatService, "maxQueryTokens", 400);
+        ReflectionTestUtils.setField(chatService, "maxListTokens", 150);
+
+        controller = new ChatController(chatService, new ValidationUtil(), mock(LLMResponseCache.class),
+                mock(LLMRequestCoalescer.class), mock(LLMRateLimiter.class), mock(LLMResiliencePolicy.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        chatExecutor.shutdownNow();
+    }
+
+    private static ChatRequestDTO request(String query) {
+        return ChatRequestDTO.builder().query(query).build();
+    }
+
+    @Test
+    void answersWithTheLlmTextAndSuggestions() {
+        RecipeResponseDTO carbonara = RecipeResponseDTO.builder().id(1L).title("Carbonara").build();
+        when(recipeService.suggestRecipes(anyList(), anyInt())).thenReturn(List.of(carbonara));
+        when(llmHelper.generateResponseAsync(anyString(), anyBoolean()))
+                .thenReturn(CompletableFuture.completedFuture("Cook the pasta al dente."));
+
+        StepVerifier.create(controller.processChat(request("How do I make carbonara?")))
+                .assertNext(entity -> {
+                    assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    ChatResponseDTO body = entity.getBody();
+                    assertThat(body.isSuccess()).isTrue();
+                    assertThat(body.getResponse()).isEqualTo("Cook the pasta al dente.");
+                    assertThat(body.getSuggestedRecipes()).containsExactly(carbonara);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void slowLlmIsAGatewayTimeoutAndTheCallIsAbandoned() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        when(llmHelper.generateResponseAsync(anyString(), anyBoolean())).thenReturn(upstream);
+
+        StepVerifier.create(controller.processChat(request("How do I make carbonara?")))
+                .assertNext(entity -> {
+                    assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+                    assertThat(entity.getBody().isSuccess()).isFalse();
+                    assertThat(entity.getBody().getError()).contains(LLM_TIMEOUT_MS + " ms");
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(upstream).isCompletedExceptionally();
+    }
+
+    @Test
+    void upstreamErrorIsReportedInTheBody() {
+        when(llmHelper.generateResponseAsync(anyString(), anyBoolean()))
+                .thenReturn(CompletableFuture.failedFuture(new CustomException("OpenAI API error: overloaded", HttpStatus.BAD_GATEWAY)));
+
+        StepVerifier.create(controller.processChat(request("How do I make carbonara?")))
+                .assertNext(entity -> {
+                    assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(entity.getBody().isSuccess()).isFalse();
+                    assertThat(entity.getBody().getError()).contains("OpenAI API error: overloaded");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void clientCancellationReachesTheLlmCall() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        when(llmHelper.generateResponseAsync(anyString(), anyBoolean())).thenReturn(upstream);
+
+        StepVerifier.create(controller.processChat(request("How do I make carbonara?")))
+                .thenCancel()
+                .verify();
+
+        assertThat(upstream).isCancelled();
+    }
+
+    @Test
+    void invalidQueriesAreRejectedBeforeAnyCall() {
+        assertThatThrownBy(() -> controller.processChat(request(" ")))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("Query cannot be empty");
+    }
+}
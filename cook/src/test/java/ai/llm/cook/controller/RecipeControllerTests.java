@@ -0,0 +1,138 @@
+package ai.llm.cook.controller;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.repository.RecipeVersionView;
+import ai.llm.cook.service.RecipeImportService;
+import ai.llm.cook.service.RecipeService;
+import ai.llm.cook.service.RecipeService.Freshness;
+import ai.llm.cook.utils.ValidationUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Conditional GETs: a matching validator is a bodiless 304 that never builds the response body
+class RecipeControllerTests {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 31, 12, 0);
+
+    private final RecipeService recipeService = mock(RecipeService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        RecipeController controller = new RecipeController(recipeService, mock(RecipeImportService.class), new ValidationUtil());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        when(recipeService.getRecipeFreshness(1L)).thenReturn(Freshness.of(List.of(version("Ada"))));
+        when(recipeService.getRecipeById(1L)).thenReturn(RecipeResponseDTO.builder().id(1L).title("Pesto").build());
+    }
+
+    private static RecipeVersionView version(String authorName) {
+        return new RecipeVersionView() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return UPDATED_AT;
+            }
+
+            @Override
+            public String getAuthorName() {
+                return authorName;
+            }
+        };
+    }
+
+    private static String httpDate(LocalDateTime time) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.of(time, ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("GMT")));
+    }
+
+    private String firstEtag() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/recipes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, httpDate(UPDATED_AT)))
+                .andExpect(content().json("{\"id\":1,\"title\":\"Pesto\"}"))
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        return etag;
+    }
+
+    @Test
+    void matchingEtagIsNotModifiedWithoutLoadingTheRecipe() throws Exception {
+        String etag = firstEtag();
+
+        mockMvc.perform(get("/api/recipes/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(recipeService, times(1)).getRecipeById(1L);
+    }
+
+    @Test
+    void unchangedSinceLastModifiedIsNotModified() throws Exception {
+        mockMvc.perform(get("/api/recipes/1").header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(UPDATED_AT)))
+                .andExpect(status().isNotModified());
+
+        verify(recipeService, never()).getRecipeById(1L);
+    }
+
+    @Test
+    void authorRenameChangesTheEtag() throws Exception {
+        String etag = firstEtag();
+        when(recipeService.getRecipeFreshness(1L)).thenReturn(Freshness.of(List.of(version("Ada Lovelace"))));
+
+        mockMvc.perform(get("/api/recipes/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1}"));
+    }
+
+    @Test
+    void listsAreValidatedByEtagOnly() throws Exception {
+        List<RecipeResponseDTO> recent = List.of(
+                RecipeResponseDTO.builder().id(2L).title("Soup").updatedAt(UPDATED_AT).build(),
+                RecipeResponseDTO.builder().id(1L).title("Pesto").updatedAt(UPDATED_AT).build());
+        when(recipeService.getRecentRecipes()).thenReturn(recent);
+
+        MvcResult first = mockMvc.perform(get("/api/recipes/recent"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/recipes/recent").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // A recipe dropping out leaves the newest updatedAt where it was, so If-Modified-Since alone can't match
+        when(recipeService.getRecentRecipes()).thenReturn(recent.subList(0, 1));
+        mockMvc.perform(get("/api/recipes/recent")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(UPDATED_AT)))
+                .andExpect(status().isOk());
+    }
+}
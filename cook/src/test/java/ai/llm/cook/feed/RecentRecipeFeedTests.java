@@ -0,0 +1,150 @@
+package ai.llm.cook.feed;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentRecipeFeedTests {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    // Stands in for the table; the loader returns the newest capacity rows like the keyset query does
+    private final List<RecipeResponseDTO> table = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static RecipeResponseDTO recipe(long id) {
+        return RecipeResponseDTO.builder().id(id).title("Recipe " + id).createdAt(EPOCH.plusMinutes(id)).build();
+    }
+
+    private RecentRecipeFeed feed(int size, int capacity) {
+        Supplier<List<RecipeResponseDTO>> loader = () -> {
+            loads.incrementAndGet();
+            return table.stream()
+                    .sorted(Comparator.comparing(RecipeResponseDTO::getCreatedAt).reversed())
+                    .limit(capacity)
+                    .toList();
+        };
+        return new RecentRecipeFeed(size, capacity, loader);
+    }
+
+    private static List<Long> ids(List<RecipeResponseDTO> recipes) {
+        return recipes.stream().map(RecipeResponseDTO::getId).toList();
+    }
+
+    private void insert(long... ids) {
+        for (long id : ids) {
+            table.add(recipe(id));
+        }
+    }
+
+    @Test
+    void servesTheNewestSizeRecipesAndLoadsOnlyOnce() {
+        insert(1, 2, 3, 4, 5);
+        RecentRecipeFeed feed = feed(3, 4);
+
+        assertThat(ids(feed.recent())).containsExactly(5L, 4L, 3L);
+        assertThat(ids(feed.recent())).containsExactly(5L, 4L, 3L);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void newRecipesGoToTheFront() {
+        insert(1, 2, 3);
+        RecentRecipeFeed feed = feed(3, 4);
+        feed.recent();
+
+        feed.put(recipe(4));
+
+        assertThat(ids(feed.recent())).containsExactly(4L, 3L, 2L);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void updatesReplaceInPlace() {
+        insert(1, 2, 3);
+        RecentRecipeFeed feed = feed(3, 4);
+        feed.recent();
+
+        RecipeResponseDTO renamed = recipe(2);
+        renamed.setTitle("Renamed");
+        feed.put(renamed);
+
+        assertThat(ids(feed.recent())).containsExactly(3L, 2L, 1L);
+        assertThat(feed.recent().get(1).getTitle()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void deletesAreAbsorbedBySpareEntries() {
+        insert(1, 2, 3, 4, 5, 6);
+        RecentRecipeFeed feed = feed(2, 4);
+        feed.recent();
+
+        table.removeIf(recipe -> recipe.getId() == 6L);
+        feed.remove(6L);
+
+        assertThat(ids(feed.recent())).containsExactly(5L, 4L);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void truncatedFeedReloadsOnceDeletesEatThroughTheSpares() {
+        insert(1, 2, 3, 4, 5, 6);
+        RecentRecipeFeed feed = feed(2, 3);
+        feed.recent();
+
+        for (long id = 6; id >= 5; id--) {
+            long deleted = id;
+            table.removeIf(recipe -> recipe.getId() == deleted);
+            feed.remove(deleted);
+        }
+
+        assertThat(ids(feed.recent())).containsExactly(4L, 3L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void editsBeyondTheTailOfATruncatedFeedAreIgnored() {
+        insert(1, 2, 3, 4, 5);
+        RecentRecipeFeed feed = feed(2, 3);
+        feed.recent();
+
+        // Recipe 1 is older than anything held; keeping it would later serve it ahead of 2
+        feed.put(recipe(1));
+
+        table.removeIf(recipe -> recipe.getId() >= 4L);
+        feed.remove(5L);
+        feed.remove(4L);
+        assertThat(ids(feed.recent())).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void writesBeforeTheFirstLoadAreNotLost() {
+        insert(1, 2);
+        RecentRecipeFeed feed = feed(3, 4);
+
+        insert(3);
+        feed.put(recipe(3));
+
+        assertThat(ids(feed.recent())).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void unknownRemovalsChangeNothing() {
+        insert(1, 2);
+        RecentRecipeFeed feed = feed(3, 4);
+        feed.recent();
+
+        feed.remove(99L);
+
+        assertThat(ids(feed.recent())).containsExactly(2L, 1L);
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,52 @@
+package ai.llm.cook.prompt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptBudgetTests {
+
+    @Test
+    void textWithinBudgetIsUnchanged() {
+        assertThat(PromptBudget.truncate("two words", 2)).isEqualTo("two words");
+        assertThat(PromptBudget.truncate(null, 2)).isNull();
+    }
+
+    @Test
+    void longTextIsCutAtAWordBoundaryWithinBudget() {
+        String text = "one two three four five six seven eight nine ten";
+
+        String truncated = PromptBudget.truncate(text, 6);
+
+        assertThat(truncated).isEqualTo("one two three...");
+        assertThat(TokenEstimator.count(truncated)).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void joinsItemsThatFit() {
+        assertThat(PromptBudget.join(List.of("eggs", "milk", "flour"), 100)).isEqualTo("eggs, milk, flour");
+        assertThat(PromptBudget.join(List.of(), 100)).isEmpty();
+        assertThat(PromptBudget.join(null, 100)).isEmpty();
+    }
+
+    @Test
+    void summarizesItemsThatDontFit() {
+        List<String> items = List.of("eggs", "milk", "flour", "sugar", "butter", "salt", "yeast", "honey");
+
+        String joined = PromptBudget.join(items, 8);
+
+        assertThat(joined).startsWith("eggs").matches(".* and \\d+ more");
+        assertThat(TokenEstimator.count(joined)).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void oversizedFirstItemIsShortenedRatherThanDropped() {
+        String item = "a very long ingredient description that goes on and on";
+
+        String joined = PromptBudget.join(List.of(item, "salt"), 6);
+
+        assertThat(joined).contains("...").endsWith(" and 1 more");
+    }
+}
@@ -0,0 +1,61 @@
+package ai.llm.cook.prompt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromptTemplateTests {
+
+    @Test
+    void rendersSlots() {
+        PromptTemplate template = PromptTemplate.compile("Cook {{dish}} for {{ people }} people.");
+
+        assertThat(template.render(Map.of("dish", "pasta", "people", "4"))).isEqualTo("Cook pasta for 4 people.");
+    }
+
+    @Test
+    void missingValuesRenderAsNothing() {
+        PromptTemplate template = PromptTemplate.compile("Cook {{dish}}.");
+
+        assertThat(template.render(Map.of())).isEqualTo("Cook .");
+    }
+
+    @Test
+    void sectionsRenderOnlyForNonEmptyValues() {
+        PromptTemplate template = PromptTemplate.compile("Query{{#diet}} (diet: {{diet}}){{/diet}}");
+
+        assertThat(template.render(Map.of("diet", "vegan"))).isEqualTo("Query (diet: vegan)");
+        assertThat(template.render(Map.of("diet", ""))).isEqualTo("Query");
+        Map<String, String> nullValue = new HashMap<>();
+        nullValue.put("diet", null);
+        assertThat(template.render(nullValue)).isEqualTo("Query");
+    }
+
+    @Test
+    void sectionsNest() {
+        PromptTemplate template = PromptTemplate.compile("{{#a}}A{{#b}}B{{/b}}{{/a}}.");
+
+        assertThat(template.render(Map.of("a", "x", "b", "y"))).isEqualTo("AB.");
+        assertThat(template.render(Map.of("a", "x"))).isEqualTo("A.");
+        assertThat(template.render(Map.of("b", "y"))).isEqualTo(".");
+    }
+
+    @Test
+    void staticPrefixStopsAtTheFirstTag() {
+        assertThat(PromptTemplate.compile("Instructions. {{query}} more").staticPrefix()).isEqualTo("Instructions. ");
+        assertThat(PromptTemplate.compile("{{query}}").staticPrefix()).isEmpty();
+        assertThat(PromptTemplate.compile("No tags").staticPrefix()).isEqualTo("No tags");
+    }
+
+    @Test
+    void rejectsMalformedTemplates() {
+        assertThatThrownBy(() -> PromptTemplate.compile("{{query")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PromptTemplate.compile("{{#a}}never closed")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PromptTemplate.compile("{{#a}}{{/b}}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PromptTemplate.compile("stray {{/a}}")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
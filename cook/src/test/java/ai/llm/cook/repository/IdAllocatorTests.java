@@ -0,0 +1,83 @@
+package ai.llm.cook.repository;
+
+import ai.llm.cook.model.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The sequence is simulated the way Hibernate creates it: start with 1, increment by the allocation size
+class IdAllocatorTests {
+
+    private static final int BLOCK = Recipe.ID_ALLOCATION_SIZE;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private IdAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString(), anyInt())).thenAnswer(invocation -> {
+            int blocks = invocation.getArgument(3);
+            List<Long> values = new ArrayList<>(blocks);
+            for (int i = 0; i < blocks; i++) {
+                values.add(nextval());
+            }
+            return values;
+        });
+        allocator = new IdAllocator(jdbcTemplate);
+    }
+
+    private long nextval() {
+        return sequence.get() == 0 ? sequence.addAndGet(1) : sequence.addAndGet(BLOCK);
+    }
+
+    private static long[] range(long from, long to) {
+        return LongStream.rangeClosed(from, to).toArray();
+    }
+
+    @Test
+    void freshSequenceOnlyHandsOutTheUsablePartOfItsFirstBlock() {
+        // nextval = 1 reserves (1 - BLOCK, 1], of which only 1 is a valid id
+        assertThat(allocator.allocate(Recipe.ID_SEQUENCE, 1)).containsExactly(1);
+        assertThat(allocator.allocate(Recipe.ID_SEQUENCE, 3)).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void fillsAcrossBlocksWithoutGapsOrOverlap() {
+        long[] ids = allocator.allocate(Recipe.ID_SEQUENCE, 2 * BLOCK + 5);
+
+        assertThat(ids).containsExactly(range(1, 2 * BLOCK + 5));
+    }
+
+    @Test
+    void idsMatchWhatHibernatesPooledOptimizerWouldUse() {
+        // The entity manager took the first two blocks; its last nextval was 1 + BLOCK
+        sequence.set(1 + BLOCK);
+
+        long[] ids = allocator.allocate(Recipe.ID_SEQUENCE, BLOCK);
+
+        assertThat(ids).containsExactly(range(BLOCK + 2, 2 * BLOCK + 1));
+    }
+
+    @Test
+    void leftoverIdsOfABlockAreNotReused() {
+        sequence.set(1 + BLOCK);
+        long[] first = allocator.allocate(Recipe.ID_SEQUENCE, 10);
+        long[] second = allocator.allocate(Recipe.ID_SEQUENCE, 10);
+
+        assertThat(first).containsExactly(range(BLOCK + 2, BLOCK + 11));
+        assertThat(second).containsExactly(range(2 * BLOCK + 2, 2 * BLOCK + 11));
+    }
+}
@@ -0,0 +1,167 @@
+package ai.llm.cook.repository;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.model.Ingredient;
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards the fetch plans of the list read paths: rendering a page must take the same number of statements
+// whether it holds one recipe or many. The second-level cache is off so that every load reaches the database.
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RecipeRepositoryQueryCountTests {
+
+    private static final int MANY = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    // GET /api/recipes, and the global recent feed, which loads through the same query
+    @Test
+    void pageTakesConstantStatements() {
+        User author = persistUser("one@example.com");
+        persistRecipes(author, 1);
+        long one = statementsToRender(() -> recipeRepository.findPage(Limit.of(MANY + 1)));
+
+        persistRecipes(author, MANY - 1);
+        long many = statementsToRender(() -> recipeRepository.findPage(Limit.of(MANY + 1)));
+
+        assertThat(one).isEqualTo(many).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void nextPageTakesConstantStatements() {
+        User author = persistUser("next@example.com");
+        persistRecipes(author, 1);
+        long one = statementsToRender(() -> recipeRepository.findPageAfter(LocalDateTime.now().plusDays(1), Long.MAX_VALUE, Limit.of(MANY + 1)));
+
+        persistRecipes(author, MANY - 1);
+        long many = statementsToRender(() -> recipeRepository.findPageAfter(LocalDateTime.now().plusDays(1), Long.MAX_VALUE, Limit.of(MANY + 1)));
+
+        assertThat(one).isEqualTo(many).isLessThanOrEqualTo(2);
+    }
+
+    // GET /api/recipes/user, and a user's recent feed
+    @Test
+    void userPageTakesConstantStatements() {
+        User author = persistUser("user@example.com");
+        User other = persistUser("other@example.com");
+        persistRecipes(other, 3);
+        persistRecipes(author, 1);
+        long one = statementsToRender(() -> recipeRepository.findUserPage(author.getId(), Limit.of(MANY + 1)));
+
+        persistRecipes(author, MANY - 1);
+        long many = statementsToRender(() -> recipeRepository.findUserPage(author.getId(), Limit.of(MANY + 1)));
+
+        assertThat(one).isEqualTo(many).isLessThanOrEqualTo(2);
+    }
+
+    // Recipes by different authors must not load their authors one by one either
+    @Test
+    void pageWithManyAuthorsTakesConstantStatements() {
+        persistRecipes(persistUser("author0@example.com"), 1);
+        long one = statementsToRender(() -> recipeRepository.findPage(Limit.of(MANY + 1)));
+
+        for (int i = 1; i < MANY; i++) {
+            persistRecipes(persistUser("author" + i + "@example.com"), 1);
+        }
+        long many = statementsToRender(() -> recipeRepository.findPage(Limit.of(MANY + 1)));
+
+        assertThat(one).isEqualTo(many).isLessThanOrEqualTo(2);
+    }
+
+    // Startup load of the search indexes: a page deep into the table costs what the first one does
+    @Test
+    void idPagesTakeConstantStatements() {
+        User author = persistUser("load@example.com");
+        List<Long> ids = persistRecipes(author, MANY).stream().map(Recipe::getId).toList();
+
+        long first = statementsToRender(() -> recipeRepository.findIdPageAfter(Long.MIN_VALUE, Limit.of(5)));
+        long deep = statementsToRender(() -> recipeRepository.findIdPageAfter(ids.get(MANY - 6), Limit.of(5)));
+
+        assertThat(first).isEqualTo(deep).isLessThanOrEqualTo(2);
+        assertThat(recipeRepository.findIdPageAfter(ids.get(MANY - 3), Limit.of(5)))
+                .extracting(Recipe::getId)
+                .containsExactly(ids.get(MANY - 2), ids.get(MANY - 1));
+    }
+
+    // GET /api/recipes/{id}
+    @Test
+    void detailTakesOneStatement() {
+        User author = persistUser("detail@example.com");
+        Long id = persistRecipes(author, 1).get(0).getId();
+
+        long statements = statementsToRender(() -> List.of(recipeRepository.findById(id).orElseThrow()));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    // Starts from an empty persistence context and renders the recipes the way the endpoints do
+    private long statementsToRender(Supplier<List<Recipe>> query) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        List<RecipeResponseDTO> rendered = query.get().stream().map(RecipeResponseDTO::fromEntity).toList();
+        assertThat(rendered).allSatisfy(recipe -> {
+            assertThat(recipe.getAuthorName()).isNotNull();
+            assertThat(recipe.getIngredients()).hasSize(2);
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFullName("Cook " + email);
+        user.setPassword("secret");
+        return entityManager.persist(user);
+    }
+
+    private List<Recipe> persistRecipes(User author, int count) {
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Recipe recipe = Recipe.builder()
+                    .title("Recipe " + i)
+                    .user(author)
+                    .ingredients(new ArrayList<>())
+                    .build();
+            recipe.getIngredients().add(Ingredient.builder().name("flour").recipe(recipe).build());
+            recipe.getIngredients().add(Ingredient.builder().name("water").recipe(recipe).build());
+            recipes.add(entityManager.persist(recipe));
+        }
+        return recipes;
+    }
+}
@@ -0,0 +1,131 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.embedding.EmbeddingClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HnswIndexTests {
+
+    private static final int DIMENSIONS = 32;
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return EmbeddingClient.normalize(vector);
+    }
+
+    private static List<Long> bruteForce(float[][] vectors, Set<Long> live, float[] query, int k) {
+        return IntStream.range(0, vectors.length)
+                .filter(i -> live.contains((long) i))
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> HnswIndex.distance(query, vectors[i])))
+                .limit(k)
+                .map(Integer::longValue)
+                .toList();
+    }
+
+    @Test
+    void findsTheExactVectorFirst() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 32);
+        Random random = new Random(1);
+        float[][] vectors = new float[100][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random);
+            index.add(i, vectors[i]);
+        }
+
+        assertThat(index.search(vectors[42], 1)).containsExactly(42L);
+        assertThat(index.size()).isEqualTo(100);
+    }
+
+    @Test
+    void recallAgainstBruteForceIsHigh() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, 64);
+        Random random = new Random(7);
+        float[][] vectors = new float[2000][];
+        Set<Long> live = new HashSet<>();
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random);
+            index.add(i, vectors[i]);
+            live.add((long) i);
+        }
+
+        int k = 10;
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            Set<Long> expected = new HashSet<>(bruteForce(vectors, live, query, k));
+            found += (int) index.search(query, k).stream().filter(expected::contains).count();
+        }
+
+        assertThat((double) found / (queries * k)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void removedAndReplacedVectorsAreSkipped() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 32);
+        Random random = new Random(3);
+        float[] first = randomVector(random);
+        float[] second = randomVector(random);
+        index.add(1, first);
+        index.add(2, second);
+
+        index.remove(1);
+        assertThat(index.search(first, 2)).containsExactly(2L);
+
+        index.add(2, first);
+        assertThat(index.search(first, 2)).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.deletedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void compactionDropsTombstones() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 32);
+        Random random = new Random(5);
+        float[][] vectors = new float[50][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random);
+            index.add(i, vectors[i]);
+        }
+        for (int i = 0; i < 25; i++) {
+            index.remove(i);
+        }
+
+        HnswIndex compacted = index.compacted();
+
+        assertThat(compacted.size()).isEqualTo(25);
+        assertThat(compacted.deletedCount()).isZero();
+        assertThat(compacted.search(vectors[30], 1)).containsExactly(30L);
+        assertThat(compacted.search(vectors[10], 25)).doesNotContain(10L);
+    }
+
+    @Test
+    void emptyIndexAndNonPositiveKFindNothing() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 32);
+        float[] query = randomVector(new Random(9));
+
+        assertThat(index.search(query, 5)).isEmpty();
+        index.add(1, query);
+        assertThat(index.search(query, 0)).isEmpty();
+    }
+
+    @Test
+    void rejectsVectorsOfTheWrongDimension() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 32);
+
+        assertThatThrownBy(() -> index.add(1, new float[DIMENSIONS + 1])).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndexSearchStrategyTests {
+
+    private final InvertedRecipeIndex recipeIndex = new InvertedRecipeIndex();
+    private final RecipeRepository recipeRepository = mock(RecipeRepository.class);
+    private IndexSearchStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 3; id++) {
+            recipeIndex.index(RecipeResponseDTO.builder().id(id).title("Tomato soup " + id).build());
+        }
+        recipeIndex.markReady();
+        strategy = new IndexSearchStrategy(recipeIndex, recipeRepository, new LikeSearchStrategy(recipeRepository));
+    }
+
+    @Test
+    void loadsOnlyTheRequestedPage() {
+        when(recipeRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Recipe> recipes = new ArrayList<>();
+            for (Long id : ids) {
+                Recipe recipe = new Recipe();
+                recipe.setId(id);
+                recipes.add(recipe);
+            }
+            return recipes;
+        });
+
+        Page<Recipe> page = strategy.search("tomato", PageRequest.of(1, 2));
+
+        // All three titles score the same, so they rank by id
+        assertThat(page.getContent()).extracting(Recipe::getId).containsExactly(3L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void pagesPastTheHitsAreEmpty() {
+        Page<Recipe> page = strategy.search("tomato", PageRequest.of(2, 2));
+
+        assertThat(page.getContent()).isEmpty();
+        verify(recipeRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void offsetsBeyondIntDoNotOverflow() {
+        Page<Recipe> page = strategy.search("tomato", PageRequest.of(Integer.MAX_VALUE, 50));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getPageable().getOffset()).isGreaterThan(Integer.MAX_VALUE);
+        verify(recipeRepository, never()).findAllById(anyIterable());
+    }
+}
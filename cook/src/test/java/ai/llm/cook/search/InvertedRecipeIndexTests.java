@@ -0,0 +1,79 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeRequestDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedRecipeIndexTests {
+
+    private final InvertedRecipeIndex index = new InvertedRecipeIndex();
+
+    private static RecipeResponseDTO recipe(long id, String title, String description, String... ingredients) {
+        return RecipeResponseDTO.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .ingredients(Arrays.stream(ingredients)
+                        .map(name -> RecipeRequestDTO.IngredientDTO.builder().name(name).build())
+                        .toList())
+                .build();
+    }
+
+    @Test
+    void titleHitsOutrankIngredientHitsWhichOutrankDescriptionHits() {
+        index.index(recipe(1, "Green salad", "Goes well with basil"));
+        index.index(recipe(2, "Pesto", "Bright and green", "basil", "pine nuts"));
+        index.index(recipe(3, "Basil lemonade", "Cold drink"));
+
+        assertThat(index.search("basil", 10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void recipesMatchingMoreTermsRankFirst() {
+        index.index(recipe(1, "Tomato soup", null));
+        index.index(recipe(2, "Tomato basil soup", null));
+        index.index(recipe(3, "Onion soup", null));
+
+        assertThat(index.search("tomato basil", 10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void reindexingReplacesAndRemovingDrops() {
+        index.index(recipe(1, "Rice pudding", null));
+        index.index(recipe(1, "Noodle soup", null));
+        index.index(recipe(2, "Fried rice", null));
+        index.remove(2L);
+
+        assertThat(index.search("rice", 10)).isEmpty();
+        assertThat(index.search("noodle", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void freedSlotsAreReused() {
+        for (long id = 1; id <= 3; id++) {
+            index.index(recipe(id, "Rice " + id, null));
+        }
+        index.remove(2L);
+        index.index(recipe(4, "Rice and beans", null));
+
+        assertThat(index.search("rice beans", 10)).containsExactly(4L, 1L, 3L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void respectsTheLimit() {
+        for (long id = 1; id <= 20; id++) {
+            index.index(recipe(id, "Curry " + id, null));
+        }
+
+        assertThat(index.search("curry", 5)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(index.search("curry", 0)).isEmpty();
+        assertThat(index.search("curry", Integer.MAX_VALUE - 1)).hasSize(20);
+        assertThat(index.search("unknown", 5)).isEmpty();
+    }
+}
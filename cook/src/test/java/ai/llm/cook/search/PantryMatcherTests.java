@@ -0,0 +1,116 @@
+package ai.llm.cook.search;
+
+import ai.llm.cook.dto.RecipeRequestDTO;
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.search.PantryMatcher.Match;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PantryMatcherTests {
+
+    private PantryMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        matcher = new PantryMatcher(List.of("salt", "water"));
+    }
+
+    private static RecipeResponseDTO recipe(long id, String... ingredients) {
+        return RecipeResponseDTO.builder()
+                .id(id)
+                .ingredients(Arrays.stream(ingredients)
+                        .map(name -> RecipeRequestDTO.IngredientDTO.builder().name(name).build())
+                        .toList())
+                .build();
+    }
+
+    private static List<Long> ids(List<Match> matches) {
+        return matches.stream().map(Match::recipeId).toList();
+    }
+
+    @Test
+    void ranksFewestMissingFirst() {
+        matcher.index(recipe(1, "eggs", "spinach", "feta"));
+        matcher.index(recipe(2, "eggs", "spinach"));
+        matcher.index(recipe(3, "eggs", "bacon", "cheese", "cream"));
+
+        List<Match> matches = matcher.match(List.of("eggs", "spinach"), 1, 10);
+
+        assertThat(ids(matches)).containsExactly(2L, 1L);
+        assertThat(matches.get(0).missingIngredients()).isEmpty();
+        assertThat(matches.get(1).missingIngredients()).containsExactly("feta");
+        assertThat(matches.get(1).requiredCount()).isEqualTo(3);
+    }
+
+    @Test
+    void tiesPreferRecipesUsingMoreOfThePantry() {
+        matcher.index(recipe(1, "eggs", "truffle"));
+        matcher.index(recipe(2, "eggs", "spinach", "truffle"));
+
+        assertThat(ids(matcher.match(List.of("eggs", "spinach"), 1, 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void staplesAreAlwaysAvailableButDontMakeAMatchOnTheirOwn() {
+        matcher.index(recipe(1, "pasta", "salt", "water"));
+        matcher.index(recipe(2, "salt", "water"));
+
+        List<Match> matches = matcher.match(List.of("pasta"), 0, 10);
+
+        assertThat(ids(matches)).containsExactly(1L);
+        assertThat(matcher.match(List.of("salt"), 0, 10)).isEmpty();
+    }
+
+    @Test
+    void namesAreNormalized() {
+        matcher.index(recipe(1, "Tomatoes ", "Cherries", "Onions"));
+
+        assertThat(ids(matcher.match(List.of("tomato", "CHERRY", "onion"), 0, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void respectsTheLimit() {
+        for (long id = 1; id <= 20; id++) {
+            matcher.index(recipe(id, "rice"));
+        }
+
+        assertThat(matcher.match(List.of("rice"), 0, 5)).hasSize(5);
+        assertThat(matcher.match(List.of("rice"), 0, 0)).isEmpty();
+    }
+
+    @Test
+    void reindexingReplacesAndRemovingDrops() {
+        matcher.index(recipe(1, "rice"));
+        matcher.index(recipe(1, "noodles"));
+        matcher.index(recipe(2, "rice"));
+        matcher.remove(2L);
+
+        assertThat(matcher.match(List.of("rice"), 0, 10)).isEmpty();
+        assertThat(ids(matcher.match(List.of("noodles"), 0, 10))).containsExactly(1L);
+        assertThat(matcher.size()).isEqualTo(1);
+    }
+
+    @Test
+    void freedSlotsAreReused() {
+        for (long id = 1; id <= 3; id++) {
+            matcher.index(recipe(id, "rice"));
+        }
+        matcher.remove(2L);
+        matcher.index(recipe(4, "rice", "beans"));
+
+        assertThat(ids(matcher.match(List.of("rice", "beans"), 0, 10))).containsExactly(4L, 1L, 3L);
+    }
+
+    @Test
+    void recipesWithoutIngredientsAreNotIndexed() {
+        matcher.index(recipe(1));
+
+        assertThat(matcher.size()).isZero();
+        assertThat(matcher.match(List.of(), 0, 10)).isEmpty();
+    }
+}
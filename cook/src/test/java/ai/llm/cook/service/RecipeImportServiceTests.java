@@ -0,0 +1,142 @@
+package ai.llm.cook.service;
+
+import ai.llm.cook.dto.RecipeImportResultDTO;
+import ai.llm.cook.event.RecipesImportedEvent;
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.model.User;
+import ai.llm.cook.repository.IdAllocator;
+import ai.llm.cook.repository.UserRepository;
+import ai.llm.cook.utils.ValidationUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The database is stubbed at the JdbcTemplate: recipe batches holding a title starting with "Broken" fail the
+// way a constraint violation would, everything else is recorded as stored
+class RecipeImportServiceTests {
+
+    private static final long USER_ID = 7L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final List<String> stored = new ArrayList<>();
+    private RecipeImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(USER_ID);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        AtomicLong sequence = new AtomicLong(1);
+        IdAllocator idAllocator = mock(IdAllocator.class);
+        when(idAllocator.allocate(anyString(), anyInt())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(1);
+            long first = sequence.getAndAdd(count);
+            return LongStream.range(first, first + count).toArray();
+        });
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<?> rows = invocation.getArgument(1);
+            List<String> titles = rows.stream()
+                    .filter(Recipe.class::isInstance)
+                    .map(row -> ((Recipe) row).getTitle())
+                    .toList();
+            if (titles.stream().anyMatch(title -> title.startsWith("Broken"))) {
+                throw new DataIntegrityViolationException("value too long for type character varying(100)");
+            }
+            stored.addAll(titles);
+            return new int[0][];
+        });
+
+        importService = new RecipeImportService(userRepository, new ValidationUtil(), idAllocator, jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher, new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "chunkSize", 3);
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String recipe(String title) {
+        return "{\"title\":\"" + title + "\",\"instructions\":\"Cook it\",\"ingredients\":[{\"name\":\"rice\"}]}";
+    }
+
+    private static List<Integer> errorIndexes(RecipeImportResultDTO result) {
+        return result.getErrors().stream().map(RecipeImportResultDTO.ItemErrorDTO::getIndex).toList();
+    }
+
+    @Test
+    void invalidItemsAreReportedByPositionAndTheRestImported() {
+        String json = "[" + String.join(",",
+                recipe("Rice bowl"),
+                "{\"title\":\"No ingredients\",\"instructions\":\"Cook it\",\"ingredients\":[]}",
+                "{\"title\":\"Null ingredient\",\"instructions\":\"Cook it\",\"ingredients\":[null]}",
+                "{\"title\":\"Nameless ingredient\",\"instructions\":\"Cook it\",\"ingredients\":[{\"name\":\" \"}]}",
+                "{\"title\":\"Wrong shape\",\"servings\":\"many\"}",
+                recipe("Fried rice")) + "]";
+
+        RecipeImportResultDTO result = importService.importRecipes(body(json), USER_ID);
+
+        assertThat(result.getReceived()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(errorIndexes(result)).containsExactly(1, 2, 3, 4);
+        assertThat(result.getErrors().get(1).getTitle()).isEqualTo("Null ingredient");
+        assertThat(result.getErrors().get(1).getError()).isEqualTo("Every ingredient needs a name");
+        assertThat(stored).containsExactly("Rice bowl", "Fried rice");
+    }
+
+    @Test
+    void failedChunkIsRetriedItemByItemToKeepTheGoodOnes() {
+        String json = String.join("\n", recipe("Rice bowl"), recipe("Broken pilaf"), recipe("Fried rice"), recipe("Rice pudding"));
+
+        RecipeImportResultDTO result = importService.importRecipes(body(json), USER_ID);
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(errorIndexes(result)).containsExactly(1);
+        assertThat(result.getErrors().get(0).getError()).startsWith("Could not store recipe: value too long");
+        assertThat(stored).containsExactly("Rice bowl", "Fried rice", "Rice pudding");
+        // Two retried items, then the second chunk
+        verify(eventPublisher, times(3)).publishEvent(any(RecipesImportedEvent.class));
+    }
+
+    @Test
+    void malformedJsonStopsTheImportButKeepsWhatWasRead() {
+        String json = "[" + recipe("Rice bowl") + ", {\"title\": ";
+
+        RecipeImportResultDTO result = importService.importRecipes(body(json), USER_ID);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getError()).startsWith("Malformed JSON, import stopped"));
+        assertThat(stored).containsExactly("Rice bowl");
+    }
+}
@@ -0,0 +1,123 @@
+package ai.llm.cook.service;
+
+import ai.llm.cook.dto.RecipeResponseDTO;
+import ai.llm.cook.model.Recipe;
+import ai.llm.cook.repository.RecipeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The NDJSON export against a stubbed repository cursor
+class RecipeServiceTests {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 31, 0, 0);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final RecipeRepository recipeRepository = mock(RecipeRepository.class);
+    private final AtomicBoolean cursorClosed = new AtomicBoolean();
+    private RecipeService recipeService;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+
+        recipeService = new RecipeService();
+        ReflectionTestUtils.setField(recipeService, "recipeRepository", recipeRepository);
+        ReflectionTestUtils.setField(recipeService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(recipeService, "entityManager", entityManager);
+    }
+
+    private Stream<Recipe> cursor(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> Recipe.builder()
+                        .id(id)
+                        .title("Recipe " + id)
+                        .createdAt(EPOCH)
+                        .updatedAt(EPOCH.plusHours(id))
+                        .build())
+                .onClose(() -> cursorClosed.set(true));
+    }
+
+    private List<RecipeResponseDTO> lines(String ndjson) throws IOException {
+        assertThat(ndjson).endsWith("\n");
+        return ndjson.lines().map(line -> {
+            try {
+                return objectMapper.readValue(line, RecipeResponseDTO.class);
+            } catch (IOException e) {
+                throw new AssertionError(line, e);
+            }
+        }).toList();
+    }
+
+    @Test
+    void writesOneRecipePerLineInIdOrder() throws IOException {
+        when(recipeRepository.streamAllById()).thenReturn(cursor(1, 2, 3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        recipeService.exportRecipes(null, false, out);
+
+        List<RecipeResponseDTO> recipes = lines(out.toString(StandardCharsets.UTF_8));
+        assertThat(recipes).extracting(RecipeResponseDTO::getId).containsExactly(1L, 2L, 3L);
+        assertThat(recipes.get(2).getUpdatedAt()).isEqualTo(EPOCH.plusHours(3));
+        assertThat(cursorClosed).isTrue();
+    }
+
+    @Test
+    void sinceOnlyReadsRecipesUpdatedFromThen() throws IOException {
+        LocalDateTime since = EPOCH.plusHours(2);
+        when(recipeRepository.streamUpdatedSince(since)).thenReturn(cursor(2, 3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        recipeService.exportRecipes(since, false, out);
+
+        assertThat(lines(out.toString(StandardCharsets.UTF_8))).extracting(RecipeResponseDTO::getId).containsExactly(2L, 3L);
+        verify(recipeRepository, never()).streamAllById();
+    }
+
+    @Test
+    void gzipWrapsTheSameLines() throws IOException {
+        when(recipeRepository.streamAllById()).thenReturn(cursor(1, 2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        recipeService.exportRecipes(null, true, out);
+
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(lines(ndjson)).extracting(RecipeResponseDTO::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void emptyCorpusExportsNothing() throws IOException {
+        when(recipeRepository.streamAllById()).thenReturn(cursor());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        recipeService.exportRecipes(null, false, out);
+
+        assertThat(out.size()).isZero();
+        assertThat(cursorClosed).isTrue();
+    }
+}
@@ -0,0 +1,115 @@
+package ai.llm.cook.utils;
+
+import ai.llm.cook.exception.CustomException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LLMRateLimiterTests {
+
+    // requests/min, tokens/min, initial, min and max concurrency, target latency ms, max wait ms
+    private static LLMRateLimiter limiter(double requestsPerMinute, double tokensPerMinute, double concurrency, long maxWaitMs) {
+        return new LLMRateLimiter(requestsPerMinute, tokensPerMinute, concurrency, 1, 64, 20_000, maxWaitMs);
+    }
+
+    @Test
+    void grantsPermitsWithinEveryBudget() {
+        LLMRateLimiter limiter = limiter(100, 10_000, 4, 100);
+
+        limiter.acquire(100).succeeded();
+        limiter.acquire(100).succeeded();
+
+        assertThat(limiter.getStats()).containsEntry("acquired", 2L).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void rejectsWithTooManyRequestsOnceMaxWaitPasses() {
+        LLMRateLimiter limiter = limiter(100, 10_000, 1, 50);
+        limiter.acquire(10);
+
+        assertThatThrownBy(() -> limiter.acquire(10))
+                .isInstanceOf(CustomException.class)
+                .extracting(e -> ((CustomException) e).getStatus())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limiter.getStats()).containsEntry("rejected", 1L).containsEntry("queued", 0);
+    }
+
+    @Test
+    void releasingAPermitLetsAQueuedCallerIn() throws Exception {
+        LLMRateLimiter limiter = limiter(100, 10_000, 1, 5_000);
+        LLMRateLimiter.Permit first = limiter.acquire(10);
+
+        CompletableFuture<LLMRateLimiter.Permit> second = CompletableFuture.supplyAsync(() -> limiter.acquire(10));
+        Thread.sleep(50);
+        assertThat(second).isNotDone();
+
+        first.failed();
+        second.get(1, TimeUnit.SECONDS).succeeded();
+        assertThat(limiter.getStats()).containsEntry("acquired", 2L);
+    }
+
+    @Test
+    void requestBudgetIsEnforced() {
+        // One request per minute: the second can't be granted within the wait
+        LLMRateLimiter limiter = limiter(1, 10_000, 4, 50);
+        limiter.acquire(10).succeeded();
+
+        assertThatThrownBy(() -> limiter.acquire(10)).isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    void tokenBudgetIsEnforced() {
+        LLMRateLimiter limiter = limiter(100, 1_000, 4, 50);
+        limiter.acquire(900).succeeded();
+
+        assertThatThrownBy(() -> limiter.acquire(500)).isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    void throttledHalvesConcurrencyAndPauses() {
+        LLMRateLimiter limiter = limiter(100, 10_000, 8, 50);
+
+        limiter.acquire(10).throttled(Duration.ofSeconds(5));
+
+        assertThat(limiter.getStats()).containsEntry("concurrencyLimit", 4.0).containsEntry("throttled", 1L);
+        assertThat((Long) limiter.getStats().get("pausedForMs")).isGreaterThan(1_000L);
+        assertThatThrownBy(() -> limiter.acquire(10)).isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    void fastSuccessesRaiseConcurrencyAndFailuresLeaveItAlone() {
+        LLMRateLimiter limiter = limiter(100, 10_000, 2, 50);
+
+        limiter.acquire(10).succeeded();
+        assertThat((Double) limiter.getStats().get("concurrencyLimit")).isEqualTo(2.5);
+
+        limiter.acquire(10).failed();
+        assertThat((Double) limiter.getStats().get("concurrencyLimit")).isEqualTo(2.5);
+    }
+
+    @Test
+    void permitIsReleasedOnlyOnce() {
+        LLMRateLimiter limiter = limiter(100, 10_000, 1, 50);
+        LLMRateLimiter.Permit permit = limiter.acquire(10);
+
+        permit.succeeded();
+        permit.failed();
+
+        assertThat(limiter.getStats()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void parsesRetryAfterHeaders() {
+        assertThat(LLMRateLimiter.parseRetryAfter("1500", "9")).isEqualTo(Duration.ofMillis(1500));
+        assertThat(LLMRateLimiter.parseRetryAfter(null, "2")).isEqualTo(Duration.ofSeconds(2));
+        assertThat(LLMRateLimiter.parseRetryAfter(null, "0.5")).isEqualTo(Duration.ofMillis(500));
+        assertThat(LLMRateLimiter.parseRetryAfter(null, "Wed, 21 Oct 2015 07:28:00 GMT")).isEqualTo(Duration.ofSeconds(1));
+        assertThat(LLMRateLimiter.parseRetryAfter(null, null)).isEqualTo(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,103 @@
+package ai.llm.cook.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LLMRequestCoalescerTests {
+
+    private final LLMRequestCoalescer coalescer = new LLMRequestCoalescer();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CompletableFuture<String> upstream = new CompletableFuture<>();
+
+    private CompletableFuture<String> call() {
+        return coalescer.executeAsync("key", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream;
+        });
+    }
+
+    @Test
+    void identicalCallsShareOneUpstreamCall() {
+        CompletableFuture<String> first = call();
+        CompletableFuture<String> second = call();
+
+        upstream.complete("answer");
+
+        assertThat(first).isCompletedWithValue("answer");
+        assertThat(second).isCompletedWithValue("answer");
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(coalescer.getStats()).containsEntry("leaders", 1L).containsEntry("coalesced", 1L).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void oneCallerCancellingLeavesTheCallToTheOthers() {
+        CompletableFuture<String> first = call();
+        CompletableFuture<String> second = call();
+
+        first.cancel(true);
+        upstream.complete("answer");
+
+        assertThat(upstream).isCompletedWithValue("answer");
+        assertThat(second).isCompletedWithValue("answer");
+    }
+
+    @Test
+    void upstreamIsCancelledOnceEveryCallerHasGivenUp() {
+        CompletableFuture<String> first = call();
+        CompletableFuture<String> second = call();
+
+        second.cancel(true);
+        assertThat(upstream).isNotDone();
+        first.cancel(true);
+
+        assertThat(upstream).isCancelled();
+        // The abandoned flight is gone, so the next caller goes upstream again
+        assertThat(coalescer.getStats()).containsEntry("inFlight", 0);
+        coalescer.executeAsync("key", () -> {
+            upstreamCalls.incrementAndGet();
+            return CompletableFuture.completedFuture("fresh");
+        });
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void aCallerTimingOutCountsAsGivingUp() {
+        CompletableFuture<String> only = call().orTimeout(20, TimeUnit.MILLISECONDS);
+
+        assertThatThrownBy(only::join).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(upstream).isCancelled();
+    }
+
+    @Test
+    void failuresReachEveryCaller() {
+        CompletableFuture<String> first = call();
+        CompletableFuture<String> second = call();
+
+        upstream.completeExceptionally(new IllegalStateException("upstream down"));
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalStateException.class).hasMessageContaining("upstream down");
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalStateException.class).hasMessageContaining("upstream down");
+    }
+
+    @Test
+    void blockingWaitersKeepAnAsyncCallAlive() throws Exception {
+        CompletableFuture<String> leader = call();
+        CompletableFuture<String> blocking = CompletableFuture.supplyAsync(() -> coalescer.execute("key", () -> "own call"));
+        while ((int) coalescer.getStats().get("waiting") == 0) {
+            Thread.sleep(5);
+        }
+
+        leader.cancel(true);
+        assertThat(upstream).isNotDone();
+        upstream.complete("answer");
+
+        assertThat(blocking.get(5, TimeUnit.SECONDS)).isEqualTo("answer");
+    }
+}
@@ -0,0 +1,174 @@
+package ai.llm.cook.utils;
+
+import ai.llm.cook.exception.CustomException;
+import ai.llm.cook.exception.LLMProviderException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LLMResiliencePolicyTests {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Millisecond backoff and no hedging, so tests don't wait
+    private LLMResiliencePolicy policy(long openMs) {
+        return new LLMResiliencePolicy(executor, MAX_ATTEMPTS, 1, 5, FAILURE_THRESHOLD, openMs, false, 2000, 20);
+    }
+
+    private static LLMProviderException upstream(HttpStatus status) {
+        return new LLMProviderException("upstream " + status.value(), status);
+    }
+
+    @Test
+    void retriesServerErrorsUntilSuccess() {
+        LLMResiliencePolicy policy = policy(30_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.execute(() -> {
+            if (calls.incrementAndGet() < MAX_ATTEMPTS) {
+                throw upstream(HttpStatus.BAD_GATEWAY);
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(MAX_ATTEMPTS);
+        assertThat(policy.getStats()).containsEntry("retries", 2L).containsEntry("circuitState", "CLOSED");
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        LLMResiliencePolicy policy = policy(30_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> policy.execute(() -> {
+            calls.incrementAndGet();
+            throw upstream(HttpStatus.BAD_GATEWAY);
+        })).isInstanceOf(LLMProviderException.class);
+        assertThat(calls).hasValue(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void clientErrorsAreNeitherRetriedNorCountedAsOutages() {
+        LLMResiliencePolicy policy = policy(30_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < FAILURE_THRESHOLD * 2; i++) {
+            assertThatThrownBy(() -> policy.execute(() -> {
+                calls.incrementAndGet();
+                throw upstream(HttpStatus.UNAUTHORIZED);
+            })).isInstanceOf(LLMProviderException.class);
+        }
+
+        assertThat(calls).hasValue(FAILURE_THRESHOLD * 2);
+        assertThat(policy.getStats()).containsEntry("circuitState", "CLOSED").containsEntry("consecutiveFailures", 0);
+    }
+
+    @Test
+    void rateLimitingIsRetriedButDoesNotOpenTheCircuit() {
+        LLMResiliencePolicy policy = policy(30_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> policy.execute(() -> {
+                calls.incrementAndGet();
+                throw upstream(HttpStatus.TOO_MANY_REQUESTS);
+            })).isInstanceOf(LLMProviderException.class);
+        }
+
+        assertThat(calls).hasValue(FAILURE_THRESHOLD * MAX_ATTEMPTS);
+        assertThat(policy.getStats()).containsEntry("circuitState", "CLOSED");
+    }
+
+    @Test
+    void retryAfterBeyondMaxDelayIsNotWaitedFor() {
+        LLMResiliencePolicy policy = policy(30_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> policy.execute(() -> {
+            calls.incrementAndGet();
+            throw new LLMProviderException("slow down", HttpStatus.TOO_MANY_REQUESTS, Duration.ofMinutes(1));
+        })).isInstanceOf(LLMProviderException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveOutagesAndShortCircuits() {
+        LLMResiliencePolicy policy = policy(30_000);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> policy.executeOnce(() -> {
+                throw upstream(HttpStatus.BAD_GATEWAY);
+            })).isInstanceOf(LLMProviderException.class);
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> policy.execute(calls::incrementAndGet))
+                .isInstanceOf(CustomException.class)
+                .extracting(e -> ((CustomException) e).getStatus())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(calls).hasValue(0);
+        assertThat(policy.getStats()).containsEntry("circuitState", "OPEN").containsEntry("circuitOpens", 1L);
+    }
+
+    @Test
+    void halfOpenTrialClosesTheCircuitOnSuccess() throws Exception {
+        LLMResiliencePolicy policy = policy(20);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> policy.executeOnce(() -> {
+                throw upstream(HttpStatus.SERVICE_UNAVAILABLE);
+            })).isInstanceOf(LLMProviderException.class);
+        }
+        Thread.sleep(50);
+
+        assertThat(policy.executeOnce(() -> "back")).isEqualTo("back");
+        assertThat(policy.getStats()).containsEntry("circuitState", "CLOSED");
+    }
+
+    @Test
+    void asyncCallsAreRetried() throws Exception {
+        LLMResiliencePolicy policy = policy(30_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = policy.executeAsync(() -> calls.incrementAndGet() < 2
+                ? CompletableFuture.failedFuture(upstream(HttpStatus.BAD_GATEWAY))
+                : CompletableFuture.completedFuture("ok"));
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void cancellingAnAsyncCallCancelsTheAttemptInFlight() {
+        LLMResiliencePolicy policy = policy(30_000);
+        CompletableFuture<String> attempt = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = policy.executeAsync(() -> {
+            calls.incrementAndGet();
+            return attempt;
+        });
+        result.cancel(true);
+
+        assertThat(attempt).isCancelled();
+        assertThat(calls).hasValue(1);
+        assertThat(policy.getStats()).containsEntry("circuitState", "CLOSED");
+    }
+}
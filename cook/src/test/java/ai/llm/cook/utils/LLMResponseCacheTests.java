@@ -0,0 +1,67 @@
+package ai.llm.cook.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LLMResponseCacheTests {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOnceFull() {
+        LLMResponseCache cache = new LLMResponseCache(true, 2, 600);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+
+        cache.put("c", "C");
+
+        assertThat(cache.<String>get("a")).isEqualTo("A");
+        assertThat(cache.<String>get("b")).isNull();
+        assertThat(cache.<String>get("c")).isEqualTo("C");
+        assertThat(cache.getStats()).containsEntry("size", 2).containsEntry("evictions", 1L);
+    }
+
+    @Test
+    void expiredEntriesAreMissesAndDropped() {
+        LLMResponseCache cache = new LLMResponseCache(true, 10, 0);
+        cache.put("a", "A");
+
+        assertThat(cache.<String>get("a")).isNull();
+        assertThat(cache.getStats())
+                .containsEntry("size", 0)
+                .containsEntry("expirations", 1L)
+                .containsEntry("misses", 1L);
+    }
+
+    @Test
+    void entriesWithinTheirTtlAreHits() {
+        LLMResponseCache cache = new LLMResponseCache(true, 10, 600);
+        cache.put("a", "A");
+
+        assertThat(cache.<String>get("a")).isEqualTo("A");
+        assertThat(cache.<String>get("missing")).isNull();
+        assertThat(cache.getStats())
+                .containsEntry("hits", 1L)
+                .containsEntry("misses", 1L)
+                .containsEntry("hitRate", 0.5);
+    }
+
+    @Test
+    void keysIgnoreCaseAndWhitespaceButNotGenerationSettings() {
+        String key = LLMResponseCache.key("chat", "gpt-4o", 0.7, "How do I  make\nPESTO? ");
+
+        assertThat(LLMResponseCache.key("chat", "gpt-4o", 0.7, "how do i make pesto?")).isEqualTo(key);
+        assertThat(LLMResponseCache.key("chat", "gpt-4o", 0.2, "how do i make pesto?")).isNotEqualTo(key);
+        assertThat(LLMResponseCache.key("chat", "gpt-4o-mini", 0.7, "how do i make pesto?")).isNotEqualTo(key);
+        assertThat(LLMResponseCache.key("recipe", "gpt-4o", 0.7, "how do i make pesto?")).isNotEqualTo(key);
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        LLMResponseCache cache = new LLMResponseCache(false, 10, 600);
+        cache.put("a", "A");
+
+        assertThat(cache.<String>get("a")).isNull();
+        assertThat(cache.getStats()).containsEntry("size", 0);
+    }
+}
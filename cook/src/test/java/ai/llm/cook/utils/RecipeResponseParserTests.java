@@ -0,0 +1,82 @@
+package ai.llm.cook.utils;
+
+import ai.llm.cook.utils.RecipeResponseParser.ParsedRecipe;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeResponseParserTests {
+
+    @Test
+    void parsesEverySection() {
+        ParsedRecipe recipe = RecipeResponseParser.parse("""
+                TITLE: Tomato Soup
+                DESCRIPTION: A warming soup.
+                Good on cold days.
+                INGREDIENTS:
+                - 4 tomatoes
+                - 1 onion
+
+                INSTRUCTIONS:
+                1. Chop everything
+                2. Simmer for 20 minutes
+                COOKING_TIME: 30 minutes
+                DIFFICULTY: Easy
+                CUISINE: Italian
+                """);
+
+        assertThat(recipe.title()).isEqualTo("Tomato Soup");
+        assertThat(recipe.description()).isEqualTo("A warming soup.\nGood on cold days.");
+        assertThat(recipe.ingredients()).containsExactly("- 4 tomatoes", "- 1 onion");
+        assertThat(recipe.instructions()).containsExactly("1. Chop everything", "2. Simmer for 20 minutes");
+        assertThat(recipe.cookingTime()).isEqualTo(30);
+        assertThat(recipe.difficulty()).isEqualTo("Easy");
+        assertThat(recipe.cuisine()).isEqualTo("Italian");
+    }
+
+    @Test
+    void sectionsMayComeInAnyOrder() {
+        ParsedRecipe recipe = RecipeResponseParser.parse("CUISINE: Thai\nTITLE: Curry\nINGREDIENTS:\nrice\n");
+
+        assertThat(recipe.title()).isEqualTo("Curry");
+        assertThat(recipe.cuisine()).isEqualTo("Thai");
+        assertThat(recipe.ingredients()).containsExactly("rice");
+    }
+
+    @Test
+    void missingSectionsAreNull() {
+        ParsedRecipe recipe = RecipeResponseParser.parse("TITLE: Toast");
+
+        assertThat(recipe.title()).isEqualTo("Toast");
+        assertThat(recipe.description()).isNull();
+        assertThat(recipe.ingredients()).isNull();
+        assertThat(recipe.cookingTime()).isNull();
+    }
+
+    @Test
+    void nullTextParsesToAnEmptyRecipe() {
+        assertThat(RecipeResponseParser.parse(null))
+                .isEqualTo(new ParsedRecipe(null, null, null, null, null, null, null));
+    }
+
+    @Test
+    void singleLineFieldsStopAtTheEndOfTheirLine() {
+        ParsedRecipe recipe = RecipeResponseParser.parse("TITLE: Pancakes\nserves four\nDIFFICULTY: Easy");
+
+        assertThat(recipe.title()).isEqualTo("Pancakes");
+    }
+
+    @Test
+    void cookingTimeTakesTheFirstNumber() {
+        assertThat(RecipeResponseParser.parse("COOKING_TIME: 30-45 minutes").cookingTime()).isEqualTo(30);
+        assertThat(RecipeResponseParser.parse("COOKING_TIME: about an hour").cookingTime()).isZero();
+        assertThat(RecipeResponseParser.parse("COOKING_TIME: 99999999999 minutes").cookingTime()).isZero();
+    }
+
+    @Test
+    void onlyTheFirstOccurrenceOfAMarkerCounts() {
+        ParsedRecipe recipe = RecipeResponseParser.parse("TITLE: First\nTITLE: Second");
+
+        assertThat(recipe.title()).isEqualTo("First");
+    }
+}